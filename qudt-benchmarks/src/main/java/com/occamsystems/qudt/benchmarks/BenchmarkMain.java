@@ -0,0 +1,32 @@
+package com.occamsystems.qudt.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Runs the benchmarks with the GC profiler attached, so every result reports allocation per
+ * operation (gc.alloc.rate.norm) next to throughput. Accepts the usual JMH command line, for
+ * example:
+ *
+ * <pre>
+ * mvn -Pbenchmarks -pl qudt-benchmarks -am package
+ * java -jar qudt-benchmarks/target/benchmarks.jar UnitIndexBenchmark -rf json
+ * </pre>
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,55 @@
+package com.occamsystems.qudt.benchmarks;
+
+import com.occamsystems.qudt.QuantityValue;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Arithmetic and conversion of single quantities. Products and quotients include building the
+ * resulting aggregate unit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantityValueBenchmark {
+
+  QuantityValue distance;
+  QuantityValue time;
+
+  @Setup
+  public void setup() {
+    distance = QuantityValue.ofScaled(42.195, L1Units.KiloM.u);
+    time = QuantityValue.ofScaled(2.02, T1Units.HR.u);
+  }
+
+  @Benchmark
+  public QuantityValue multiply() {
+    return QuantityValue.multiply(distance, time);
+  }
+
+  @Benchmark
+  public QuantityValue divide() {
+    return QuantityValue.divide(distance, time);
+  }
+
+  @Benchmark
+  public QuantityValue inUnit() {
+    return distance.inUnit(L1Units.M.u);
+  }
+}
@@ -0,0 +1,52 @@
+package com.occamsystems.qudt.benchmarks;
+
+import com.occamsystems.qudt.LiteralUnit;
+import com.occamsystems.qudt.QuantityValue;
+import com.occamsystems.qudt.UnitIndex;
+import com.occamsystems.qudt.predefined.Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Cold start: the time of the first use of the predefined units in a fresh JVM, including class
+ * loading and initialization. Each fork measures a single invocation, so the forks are what is
+ * averaged. Loading every predefined unit is included as the baseline that lazy loading avoids.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+  @Benchmark
+  public LiteralUnit[] firstVectorLookup() {
+    return Units.byDV.get(L1Units.M.u.dv().indexCode());
+  }
+
+  @Benchmark
+  public QuantityValue firstParse() {
+    return new UnitIndex().parseQuantity("18.3 kN");
+  }
+
+  @Benchmark
+  public int allPredefinedUnits() {
+    int count = 0;
+    for (LiteralUnit[] units : Units.byDV.values()) {
+      count += units.length;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,72 @@
+package com.occamsystems.qudt.benchmarks;
+
+import com.occamsystems.qudt.AggregateUnit;
+import com.occamsystems.qudt.DimensionVector;
+import com.occamsystems.qudt.SmallFraction;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.M1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Unit algebra below the index: aggregate units, dimension vectors and small fractions. The
+ * cached variants measure repeated reads of a memoized value, while the others include creating the
+ * object being read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitAlgebraBenchmark {
+
+  AggregateUnit force;
+  DimensionVector dv;
+  double exponent = 0.3333;
+
+  @Setup
+  public void setup() {
+    force =
+        new AggregateUnit(
+            new AggregateUnit(M1Units.KiloGM.u, 1, L1Units.M.u, 1), 1, T1Units.SEC.u, -2);
+    dv = force.dv();
+  }
+
+  @Benchmark
+  public DimensionVector aggregateDvCached() {
+    return force.dv();
+  }
+
+  @Benchmark
+  public DimensionVector aggregateDv() {
+    return new AggregateUnit(force, 1, T1Units.SEC.u, 1).dv();
+  }
+
+  @Benchmark
+  public String indexCodeCached() {
+    return dv.indexCode();
+  }
+
+  @Benchmark
+  public String indexCode() {
+    return new DimensionVector(dv.vector()).indexCode();
+  }
+
+  @Benchmark
+  public SmallFraction approximate() {
+    return SmallFraction.approximate(exponent);
+  }
+}
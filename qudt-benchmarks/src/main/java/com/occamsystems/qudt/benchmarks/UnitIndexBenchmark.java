@@ -0,0 +1,89 @@
+package com.occamsystems.qudt.benchmarks;
+
+import com.occamsystems.qudt.AggregateUnit;
+import com.occamsystems.qudt.LiteralUnit;
+import com.occamsystems.qudt.QuantityValue;
+import com.occamsystems.qudt.Unit;
+import com.occamsystems.qudt.UnitCache;
+import com.occamsystems.qudt.UnitIndex;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Parsing and lookup through a warmed-up {@link UnitIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitIndexBenchmark {
+
+  UnitIndex index;
+  UnitIndex uncached;
+  Unit aggregate;
+
+  @Setup
+  public void setup() {
+    index = new UnitIndex();
+    index.simpleSymbolMap();
+    uncached = new UnitIndex();
+    uncached.useSymbolCache(new UnitCache(0, UnitCache.Policy.LRU));
+    uncached.simpleSymbolMap();
+    aggregate = new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1);
+  }
+
+  @State(Scope.Benchmark)
+  public static class Quantity {
+    @Param({"3.5 m", "-12.25e3 km/h", "9.81 m/s2", "101.3 kPa", "4 kg*m2/s2", "3e5 mL/mol/K"})
+    String value;
+  }
+
+  @State(Scope.Benchmark)
+  public static class Symbol {
+    @Param({"m", "km/h", "N"})
+    String value;
+  }
+
+  @Benchmark
+  public QuantityValue parseQuantity(Quantity quantity) {
+    return index.parseQuantity(quantity.value);
+  }
+
+  /** As {@link #parseQuantity}, with the cache of resolved unit strings turned off. */
+  @Benchmark
+  public QuantityValue parseQuantityUncached(Quantity quantity) {
+    return uncached.parseQuantity(quantity.value);
+  }
+
+  @Benchmark
+  public Unit exactMatchString(Symbol symbol) {
+    return index.exactMatch(symbol.value);
+  }
+
+  @Benchmark
+  public Optional<LiteralUnit> exactMatchUnit() {
+    return index.exactMatch(aggregate);
+  }
+
+  @Benchmark
+  public LiteralUnit bestPredefinedMatch() {
+    return index.bestPredefinedMatch(aggregate);
+  }
+}
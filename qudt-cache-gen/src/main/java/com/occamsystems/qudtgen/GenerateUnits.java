@@ -9,11 +9,15 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
@@ -31,6 +35,11 @@ public class GenerateUnits {
   private static final String APPLICABLE_SYSTEM = "http://qudt.org/schema/qudt/applicableSystem";
   public static final Logger log = Logger.getLogger(GeneratorUtils.class.getName());
 
+  /** Matches keyboard symbols of units that are powers or compositions of other units. */
+  private static final Pattern COMPOSITE = Pattern.compile(".*[0-9*/].*");
+
+  private static final int SYMBOLS_PER_METHOD = 1000;
+
   public void run(String outputFilePath) {
     Model model = ModelFactory.createDefaultModel();
     model.read(UNIT_VOCAB, "TTL");
@@ -47,7 +56,9 @@ public class GenerateUnits {
     ResIterator iterator = model.listSubjectsWithProperty(hasVector);
 
     Map<String, Map<String, String>> vectorToUnits = new HashMap<>(300);
+    Map<String, Map<String, String>> vectorToSymbols = new HashMap<>(300);
     Map<String, String> replacementMap = new HashMap<>();
+    Map<String, Map<String, SymbolCandidate>> symbolToUnits = new HashMap<>();
 
     List<String> malformed = new ArrayList<>(250);
     List<String> noKinds = new ArrayList<>(250);
@@ -79,25 +90,45 @@ public class GenerateUnits {
             noSystems.add(res.getLocalName());
           } else {
             String localName = res.getLocalName();
-            String vectorName =
-                GeneratorUtils.shortenVectorName(
-                    res.getProperty(hasVector).getObject().asResource().getLocalName());
+            String longVectorName =
+                res.getProperty(hasVector).getObject().asResource().getLocalName();
+            String vectorName = GeneratorUtils.shortenVectorName(longVectorName);
             Map<String, String> units =
                 vectorToUnits.computeIfAbsent(vectorName, n -> new TreeMap<>());
 
             try {
+              double multiplier = GeneratorUtils.doubleOrThrow(res, conversionMult);
+              String unitSymbol = GeneratorUtils.bestString(res, symbol);
               String args =
                   "\"%s\",\"%s\",\"%s\",%s,%s,%s,%s"
                       .formatted(
                           GeneratorUtils.bestString(res, label),
                           res.getLocalName(),
-                          GeneratorUtils.bestString(res, symbol),
+                          unitSymbol,
                           vectorName,
                           String.valueOf(GeneratorUtils.doubleOrElse(res, conversionOffset, 0.)),
-                          String.valueOf(GeneratorUtils.doubleOrThrow(res, conversionMult)),
+                          String.valueOf(multiplier),
                           kinds);
 
-              units.put(localName.replace("-", "_").replace("pt", "dot"), args);
+              String name = localName.replace("-", "_").replace("pt", "dot");
+              units.put(name, args);
+              vectorToSymbols
+                  .computeIfAbsent(vectorName, n -> new TreeMap<>())
+                  .put(name, unitSymbol);
+
+              String keyboardSymbol = GeneratorUtils.toKeyboardChars(unitSymbol);
+              if (!COMPOSITE.matcher(keyboardSymbol).matches()
+                  && !(GeneratorUtils.isDimensionless(longVectorName) && multiplier == 1.)) {
+                symbolToUnits
+                    .computeIfAbsent(keyboardSymbol, k -> new TreeMap<>())
+                    .put(
+                        vectorName + "Units." + name,
+                        new SymbolCandidate(
+                            vectorName,
+                            name,
+                            localName,
+                            GeneratorUtils.dimensionKey(longVectorName)));
+              }
             } catch (Throwable t) {
               malformed.add(res.getURI());
             }
@@ -134,7 +165,9 @@ public class GenerateUnits {
                           "units",
                           units,
                           "names",
-                          units.keySet().stream().collect(Collectors.joining(",\n\t\t"))),
+                          units.keySet().stream().collect(Collectors.joining(",\n\t\t")),
+                          "symbols",
+                          firstBySymbol(vectorToSymbols.get(vector))),
                       Files.newBufferedWriter(Path.of(oPath, vector + "Units.java")));
               env.process();
             } catch (TemplateException | IOException e) {
@@ -145,21 +178,149 @@ public class GenerateUnits {
       Template indexTemplate = freemarker.getTemplate("UnitIndex.ftl");
       Environment env = null;
       try {
-        Map<String, String> fullToShortVector =
-            vectorToUnits.keySet().stream()
-                .collect(Collectors.toMap(s -> s, GeneratorUtils::shortenVectorName));
+        // Sorted as Units looks vectors up, with String.compareTo.
+        List<String> vectors = vectorToUnits.keySet().stream().sorted().toList();
         env =
             indexTemplate.createProcessingEnvironment(
                 Map.of(
                     "vocabUrl", UNIT_VOCAB,
-                    "vectors", fullToShortVector),
+                    "vectors", vectors),
                 Files.newBufferedWriter(Path.of(oPath, "Units.java")));
         env.process();
       } catch (TemplateException | IOException e) {
         throw new RuntimeException(e);
       }
+
+      this.writeSymbolIndex(freemarker, oPath, symbolToUnits, vectorToUnits);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Writes SymbolIndex, which maps the keyboard symbols of simple units to units with collisions
+   * already resolved, so that the core library does not have to work them out at runtime. Units
+   * that share a symbol are ordered as UnitIndex orders them when no units are preferred: units
+   * whose dimension vector has more quantity kinds first, then by URI. Units are written as their
+   * vector code and ordinal rather than as enum references, so that loading SymbolIndex does not
+   * load the enum of every vector.
+   */
+  private void writeSymbolIndex(
+      Configuration freemarker,
+      String oPath,
+      Map<String, Map<String, SymbolCandidate>> symbolToUnits,
+      Map<String, Map<String, String>> vectorToUnits)
+      throws IOException {
+    // The enum constants of a vector are declared in the order of its unit map.
+    Map<String, Map<String, Integer>> ordinals = new HashMap<>();
+    vectorToUnits.forEach(
+        (vector, units) -> {
+          Map<String, Integer> byName = new HashMap<>();
+          units.keySet().forEach(name -> byName.put(name, byName.size()));
+          ordinals.put(vector, byName);
+        });
+    Function<SymbolCandidate, String> vector = c -> "\"" + c.vector() + "\"";
+    Function<SymbolCandidate, String> ordinal =
+        c -> String.valueOf(ordinals.get(c.vector()).get(c.name()));
+
+    Map<String, Integer> kindsByDimension = this.countKindsByDimension();
+    Comparator<SymbolCandidate> order =
+        Comparator.comparingInt(
+                (SymbolCandidate c) -> -kindsByDimension.getOrDefault(c.dimensionKey(), 0))
+            .thenComparing(SymbolCandidate::localName);
+
+    // Symbols are sorted as the compiled string literals will compare, not as they are escaped.
+    Map<String, List<SymbolCandidate>> sorted =
+        new TreeMap<>(Comparator.comparing((String k) -> k.replace("\\\"", "\"")));
+    symbolToUnits.forEach(
+        (key, candidates) -> {
+          List<SymbolCandidate> list = new ArrayList<>(candidates.values());
+          list.sort(order);
+          sorted.put(key, list);
+        });
+
+    List<String> symbols = new ArrayList<>(sorted.size());
+    List<String> contested = new ArrayList<>();
+    sorted.forEach(
+        (key, candidates) -> {
+          SymbolCandidate first = candidates.get(0);
+          symbols.add(
+              "%d, \"%s\", %s, %s"
+                  .formatted(symbols.size(), key, vector.apply(first), ordinal.apply(first)));
+          if (candidates.size() > 1) {
+            log.fine(
+                "Resolve symbol collision on "
+                    + key
+                    + " = "
+                    + candidates.stream()
+                        .map(SymbolCandidate::localName)
+                        .collect(Collectors.joining(", ")));
+            contested.add(
+                "%d, \"%s\", new String[] {%s}, %s"
+                    .formatted(
+                        contested.size(),
+                        key,
+                        candidates.stream().map(vector).collect(Collectors.joining(", ")),
+                        candidates.stream().map(ordinal).collect(Collectors.joining(", "))));
+          }
+        });
+    log.info("Simple symbols: " + symbols.size() + ", with collisions: " + contested.size());
+
+    Template template = freemarker.getTemplate("SymbolIndex.ftl");
+    try {
+      Environment env =
+          template.createProcessingEnvironment(
+              Map.of(
+                  "vocabUrl", UNIT_VOCAB,
+                  "symbolCount", symbols.size(),
+                  "symbols", chunks(symbols),
+                  "contestedCount", contested.size(),
+                  "contested", chunks(contested)),
+              Files.newBufferedWriter(Path.of(oPath, "SymbolIndex.java")));
+      env.process();
+    } catch (TemplateException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Maps each distinct symbol to the first unit that has it, in declaration order, which is the
+   * order of the unit names.
+   */
+  private static Map<String, String> firstBySymbol(Map<String, String> nameToSymbol) {
+    Map<String, String> symbols = new LinkedHashMap<>();
+    nameToSymbol.forEach((name, symbol) -> symbols.putIfAbsent(symbol, name));
+    return symbols;
+  }
+
+  /** Counts quantity kinds by dimension vector, as UnitIndex.kindsByDimensionVector groups them. */
+  private Map<String, Integer> countKindsByDimension() {
+    Model model = ModelFactory.createDefaultModel();
+    model.read(GenerateKinds.KIND_VOCAB, "TTL");
+    Property hasVector = model.createProperty(GeneratorUtils.HAS_VECTOR);
+
+    Map<String, Integer> counts = new HashMap<>();
+    model
+        .listSubjectsWithProperty(hasVector)
+        .forEach(
+            res ->
+                counts.merge(
+                    GeneratorUtils.dimensionKey(
+                        res.getProperty(hasVector).getObject().asResource().getLocalName()),
+                    1,
+                    Integer::sum));
+    return counts;
+  }
+
+  /** Splits lines into chunks small enough to keep generated methods well below the JVM limit. */
+  private static List<List<String>> chunks(List<String> lines) {
+    List<List<String>> chunks = new ArrayList<>();
+    for (int i = 0; i < lines.size(); i += SYMBOLS_PER_METHOD) {
+      chunks.add(lines.subList(i, Math.min(lines.size(), i + SYMBOLS_PER_METHOD)));
+    }
+    return chunks;
+  }
+
+  private record SymbolCandidate(
+      String vector, String name, String localName, String dimensionKey) {}
 }
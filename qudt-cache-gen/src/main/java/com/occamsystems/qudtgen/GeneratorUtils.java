@@ -1,5 +1,6 @@
 package com.occamsystems.qudtgen;
 
+import java.util.Arrays;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
@@ -61,4 +62,67 @@ public class GeneratorUtils {
       return b.toString();
     }
   }
+
+  /**
+   * Splits a long dimension vector name such as A0E0L1I0M0H0T-2D0 into its eight exponents, or
+   * returns null if the name is not of that form.
+   */
+  private static String[] exponents(String longName) {
+    String[] split = longName.split("[AELIMHTD]");
+    return split.length == 9 ? Arrays.copyOfRange(split, 1, 9) : null;
+  }
+
+  /**
+   * Returns a key that is the same for two long vector names exactly when the core library treats
+   * their dimension vectors as equal. That ignores the dimensionless flag D.
+   */
+  static String dimensionKey(String longName) {
+    String[] exponents = exponents(longName);
+    if (exponents == null) {
+      return longName;
+    }
+
+    return String.join(",", Arrays.asList(exponents).subList(0, 7));
+  }
+
+  /** Whether the long vector name has no dimensions, whatever its dimensionless flag. */
+  static boolean isDimensionless(String longName) {
+    String[] exponents = exponents(longName);
+    return exponents != null
+        && Arrays.stream(exponents).limit(7).allMatch(e -> e.isBlank() || "0".equals(e));
+  }
+
+  /**
+   * Maps a unit symbol to the keyboard characters used to look it up. This must stay identical to
+   * UnitIndex.toKeyboardChars in qudt-core, which cannot be used here because qudt-core is built
+   * with this generator.
+   */
+  static String toKeyboardChars(String symbol) {
+    StringBuilder b = new StringBuilder(symbol.length());
+    for (int i = 0; i < symbol.length(); i++) {
+      char c = symbol.charAt(i);
+      switch (c) {
+        case '\u00b9' -> b.append('1');
+        case '\u00b2', '\u00b3' -> b.append((char) (c - 128));
+        case '\u2070', '\u2074', '\u2075', '\u2076', '\u2077', '\u2078', '\u2079' ->
+            b.append((char) (c - 8256));
+        case '\u207b' -> b.append('-');
+        case '\u22c5', '\u00b7' -> b.append('*');
+        case '\u00b0' -> b.append("deg");
+        case '\u03a9', '\u2126' -> b.append("ohm");
+        case '\u2127' -> b.append("mho");
+        case '\u03bc', '\u00b5' -> b.append('u');
+        case '\u03c7' -> b.append("chi");
+        case '\u1d63' -> b.append('r');
+        case '\u209a' -> b.append('p');
+        case '\u1d68' -> b.append('g');
+        case '\u00c5' -> b.append("Ao");
+        case '\u2082' -> b.append('2');
+        case '\u2080' -> b.append('0');
+        case '\u03b3' -> b.append("gamma");
+        default -> b.append(c);
+      }
+    }
+    return b.toString();
+  }
 }
@@ -0,0 +1,114 @@
+package com.occamsystems.qudt.predefined;
+
+import com.occamsystems.qudt.LiteralUnit;
+import java.util.Arrays;
+
+/**
+ * This file was generated based on ${vocabUrl}.
+ *
+ * <p>The keyboard symbols of simple units, sorted, each with the unit it resolves to when no units
+ * are preferred. Symbols shared by several units are also listed with all of their candidates, in
+ * order: units whose dimension vector has more quantity kinds first, then by URI.
+ *
+ * <p>Units are kept as their dimension vector code and ordinal and are only looked up through
+ * {@link Units#units(String)} when asked for, so using this index loads just the enums of the
+ * units it returns.
+ */
+public final class SymbolIndex {
+  private static final String[] SYMBOLS = new String[${symbolCount?c}];
+  private static final String[] VECTORS = new String[${symbolCount?c}];
+  private static final int[] ORDINALS = new int[${symbolCount?c}];
+  private static final String[] CONTESTED = new String[${contestedCount?c}];
+  private static final String[][] CANDIDATE_VECTORS = new String[${contestedCount?c}][];
+  private static final int[][] CANDIDATE_ORDINALS = new int[${contestedCount?c}][];
+
+  static {
+<#list symbols as chunk>
+    symbols${chunk?index}();
+</#list>
+<#list contested as chunk>
+    contested${chunk?index}();
+</#list>
+  }
+
+  private SymbolIndex() {}
+
+  /** The number of symbols. */
+  public static int size() {
+    return SYMBOLS.length;
+  }
+
+  /** The i-th symbol in sorted order. */
+  public static String symbol(int i) {
+    return SYMBOLS[i];
+  }
+
+  /** Returns the position of the symbol in sorted order, or a negative number if it is not listed. */
+  public static int indexOf(String symbol) {
+    return Arrays.binarySearch(SYMBOLS, symbol);
+  }
+
+  /** The unit the i-th symbol resolves to when no units are preferred. */
+  public static LiteralUnit unit(int i) {
+    return Units.units(VECTORS[i])[ORDINALS[i]];
+  }
+
+  /** Returns the unit the symbol resolves to when no units are preferred, or null if there is none. */
+  public static LiteralUnit get(String symbol) {
+    int i = indexOf(symbol);
+    return i >= 0 ? unit(i) : null;
+  }
+
+  /** Returns the symbols that are shared by several units, sorted. */
+  public static String[] contested() {
+    return CONTESTED.clone();
+  }
+
+  /** Whether the symbol is shared by several units. */
+  public static boolean isContested(String symbol) {
+    return Arrays.binarySearch(CONTESTED, symbol) >= 0;
+  }
+
+  /** Returns every unit with the symbol, in order of preference when no units are preferred. */
+  public static LiteralUnit[] candidates(String symbol) {
+    int i = Arrays.binarySearch(CONTESTED, symbol);
+    if (i >= 0) {
+      LiteralUnit[] candidates = new LiteralUnit[CANDIDATE_VECTORS[i].length];
+      for (int k = 0; k < candidates.length; k++) {
+        candidates[k] = Units.units(CANDIDATE_VECTORS[i][k])[CANDIDATE_ORDINALS[i][k]];
+      }
+      return candidates;
+    }
+
+    LiteralUnit unit = get(symbol);
+    return unit == null ? new LiteralUnit[0] : new LiteralUnit[] {unit};
+  }
+
+  private static void symbol(int i, String symbol, String vector, int ordinal) {
+    SYMBOLS[i] = symbol;
+    VECTORS[i] = vector;
+    ORDINALS[i] = ordinal;
+  }
+
+  private static void contested(int i, String symbol, String[] vectors, int... ordinals) {
+    CONTESTED[i] = symbol;
+    CANDIDATE_VECTORS[i] = vectors;
+    CANDIDATE_ORDINALS[i] = ordinals;
+  }
+<#list symbols as chunk>
+
+  private static void symbols${chunk?index}() {
+<#list chunk as args>
+    symbol(${args});
+</#list>
+  }
+</#list>
+<#list contested as chunk>
+
+  private static void contested${chunk?index}() {
+<#list chunk as args>
+    contested(${args});
+</#list>
+  }
+</#list>
+}
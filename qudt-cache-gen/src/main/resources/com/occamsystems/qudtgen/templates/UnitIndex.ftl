@@ -1,22 +1,95 @@
 package com.occamsystems.qudt.predefined;
 
-import static com.occamsystems.qudt.predefined.DimensionVectors.*;
-
-import com.occamsystems.qudt.DimensionVector;
 import com.occamsystems.qudt.LiteralUnit;
 import com.occamsystems.qudt.predefined.units.*;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This file was generated based on ${vocabUrl}.
+ *
+ * <p>Predefined units by dimension vector code. The enum of a dimension vector is only loaded and
+ * initialized when its units are first requested, so looking up one vector does not construct
+ * every predefined unit. Iterating the values of {@link #byDV} loads each enum as it is reached.
  */
 public class Units {
-  public static final Map<String, LiteralUnit[]> byDV = new HashMap(225);
+  private static final String[] VECTORS = {
+<#list vectors as vector>
+    "${vector}",
+</#list>
+  };
+
+  /** An unmodifiable map from dimension vector codes to the predefined units with that vector. */
+  public static final Map<String, LiteralUnit[]> byDV = new ByDV();
 
-  static {
-<#list vectors as longName, shortName>
-    byDV.put("${longName}", ${shortName}Units.units());
+  /**
+   * Returns the predefined units with the dimension vector code, loading only the enum for that
+   * vector, or null if there are none.
+   */
+  public static LiteralUnit[] units(String vector) {
+    return switch (vector) {
+<#list vectors as vector>
+      case "${vector}" -> ${vector}Units.units();
 </#list>
+      default -> null;
+    };
+  }
+
+  private static final class ByDV extends AbstractMap<String, LiteralUnit[]> {
+    private final Set<String> keys =
+        Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(VECTORS)));
+
+    @Override
+    public LiteralUnit[] get(Object key) {
+      return key instanceof String vector ? units(vector) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String vector && Arrays.binarySearch(VECTORS, vector) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return VECTORS.length;
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return this.keys;
+    }
+
+    @Override
+    public Set<Entry<String, LiteralUnit[]>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, LiteralUnit[]>> iterator() {
+          Iterator<String> vectors = keys.iterator();
+          return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+              return vectors.hasNext();
+            }
+
+            @Override
+            public Entry<String, LiteralUnit[]> next() {
+              String vector = vectors.next();
+              return new SimpleImmutableEntry<>(vector, units(vector));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return VECTORS.length;
+        }
+      };
+    }
   }
-}
\ No newline at end of file
+}
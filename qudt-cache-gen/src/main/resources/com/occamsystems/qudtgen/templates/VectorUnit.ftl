@@ -23,16 +23,38 @@ public enum ${vector}Units {
     u = new LiteralUnit(label, uri, symbol, dv, co, cm, qks);
   }
 
-  private static LiteralUnit[] cache = null;
+  private static final ${vector}Units[] VALUES = values();
+  private static final LiteralUnit[] UNITS = new LiteralUnit[VALUES.length];
 
-  public static LiteralUnit[] units() {
-    if (cache == null) {
-      cache = new LiteralUnit[${vector}Units.values().length];
-      for (int i = 0; i < ${vector}Units.values().length; i++) {
-        cache[i] = ${vector}Units.values()[i].u;
-      }
+  static {
+    for (int i = 0; i < VALUES.length; i++) {
+      UNITS[i] = VALUES[i].u;
     }
+  }
+
+  /**
+   * Returns the units of this dimension vector in declaration order. The array is built once, when
+   * the enum is initialized, and is shared by all callers, so it must not be modified.
+   */
+  public static LiteralUnit[] units() {
+    return UNITS;
+  }
+
+  /** Returns the constant with the ordinal, without copying values(). */
+  public static ${vector}Units byOrdinal(int ordinal) {
+    return VALUES[ordinal];
+  }
 
-    return cache;
+  /**
+   * Returns the first constant in declaration order whose unit has exactly the symbol, or null if
+   * there is none.
+   */
+  public static ${vector}Units bySymbol(String symbol) {
+    return switch (symbol) {
+<#list symbols as symbol, name>
+      case "${symbol}" -> ${name};
+</#list>
+      default -> null;
+    };
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.QuantityKinds;
+import com.occamsystems.qudt.predefined.SymbolIndex;
+import com.occamsystems.qudt.predefined.Units;
+import java.util.List;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A training run for an application class data sharing (AppCDS) archive of qudt-core. It loads
+ * and initializes every predefined unit, quantity kind and dimension vector, and goes through the
+ * usual parsing paths of {@link UnitIndex}, so that the classes involved are dumped to the archive.
+ *
+ * <p>This is not part of the library. The {@code cds} profile runs it from source with the jar as
+ * the only class path entry, so that the archive matches any run whose class path starts with that
+ * jar:
+ *
+ * <pre>
+ * mvn -Pcds -pl qudt-core -am package
+ * java -XX:SharedArchiveFile=qudt-core/target/qudt-core-1.0-SNAPSHOT.jsa \
+ *     -cp $PWD/qudt-core/target/qudt-core-1.0-SNAPSHOT.jar:... com.example.Main
+ * </pre>
+ */
+public final class CdsTraining {
+
+  private CdsTraining() {}
+
+  public static void main(String[] args) {
+    int units = 0;
+    for (LiteralUnit[] vectorUnits : Units.byDV.values()) {
+      units += vectorUnits.length;
+    }
+
+    int kinds = QuantityKinds.values().length;
+
+    UnitIndex index = new UnitIndex();
+    int symbols = index.simpleSymbolMap().size();
+    for (String quantity : List.of("18.3 kN", "-12.25e3 km/h", "9.81 m/s2", "7,500 g", "4 kg*m2")) {
+      index.parseQuantity(quantity);
+    }
+    for (int i = 0; i < SymbolIndex.size(); i++) {
+      index.exactMatch(SymbolIndex.symbol(i));
+    }
+    Unit squareMetre = new AggregateUnit(index.exactMatch("m"), 2);
+    index.exactMatch(squareMetre);
+    index.bestPredefinedMatch(squareMetre);
+    index.converter(index.exactMatch("km"), index.exactMatch("m"));
+
+    System.out.printf("Trained on %d units, %d kinds and %d symbols%n", units, kinds, symbols);
+  }
+}
@@ -1,94 +1,306 @@
 package com.occamsystems.qudt;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Components are fixed once an aggregate is constructed, so its dimension vector and conversion
+ * factors are computed once, during construction, and its symbol is computed on first use.
+ *
+ * <p>Components are kept as parallel arrays sorted by {@link LiteralUnit#compare}: the literal
+ * units, and their exponents packed into ints. Because every aggregate is sorted the same way,
+ * products and quotients merge their operands with a single linear scan. Two aggregates are equal
+ * when they have the same components with the same exponents, and their hash code is computed once
+ * from those arrays. Components whose exponents are zero are never kept, not even for a single unit
+ * raised to the power zero.
+ */
 public class AggregateUnit extends Unit {
-  Map<LiteralUnit, SmallFraction> components;
+  /** The number of aggregates kept by {@link #intern()}. */
+  public static final int MAX_INTERNED = 4096;
+
+  private static final BoundedCache<AggregateUnit, AggregateUnit> INTERNED =
+      new BoundedCache<>(MAX_INTERNED, UnitCache.Policy.LRU);
+  private static final LiteralUnit[] NO_UNITS = new LiteralUnit[0];
+  private static final int[] NO_EXPONENTS = new int[0];
+  private static final int DENOMINATOR_BITS = 8;
+  private static final int DENOMINATOR_MASK = (1 << DENOMINATOR_BITS) - 1;
+  static final int PACKED_ONE = pack(1, 1);
+
+  private final LiteralUnit[] units;
+  private final int[] exponents;
+  private final int hash;
+  private final DimensionVector dv;
+  private final double conversionMultiplier;
+  private final double conversionOffset;
+  private String symbol;
 
   public static AggregateUnit empty = new AggregateUnit(null, 0);
 
   public AggregateUnit(Unit unit, int i) {
-    this(unit, new SmallFraction(i));
+    this(unit, SmallFraction.of(i));
   }
 
+  /**
+   * Creates unit^i. Components with exponent zero are dropped, so unit^0 is equal to {@link #empty}
+   * and its symbol is "" rather than the unit's symbol with a superscript zero.
+   */
   public AggregateUnit(Unit unit, SmallFraction i) {
-    if (unit instanceof LiteralUnit lu) {
-      components = Map.of(lu, i);
-    } else if (unit instanceof AggregateUnit agg) {
-      components = new HashMap<>(agg.components.size());
+    this(merge(unit, i, null, SmallFraction.ZERO));
+  }
+
+  public AggregateUnit(Unit unit, int i, Unit unit1, int i1) {
+    this(unit, SmallFraction.of(i), unit1, SmallFraction.of(i1));
+  }
+
+  public AggregateUnit(Unit unit, SmallFraction i, Unit unit1, SmallFraction i1) {
+    this(merge(unit, i, unit1, i1));
+  }
 
-      agg.components.forEach((lu, lui) -> components.put(lu, SmallFraction.times(lui, i).reduce()));
+  public AggregateUnit(Map<Unit, SmallFraction> unitMap) {
+    this(components(unitMap));
+  }
+
+  /**
+   * Creates an aggregate from the first n entries of parallel arrays of units and packed exponents,
+   * in any order. Repeated units are combined, and units whose exponents are zero are dropped. The
+   * arrays are not retained.
+   */
+  AggregateUnit(LiteralUnit[] units, int[] exponents, int n) {
+    this(canonical(Arrays.copyOf(units, n), Arrays.copyOf(exponents, n)));
+  }
+
+  /**
+   * Takes canonical components and derives the dimension vector and conversion from them. Every
+   * field but the lazily built symbol is final, so shared and interned aggregates are safely
+   * published.
+   */
+  private AggregateUnit(Components components) {
+    this.units = components.units();
+    this.exponents = components.exponents();
+
+    int h = 1;
+    long packed = DimensionVector.DIMENSIONLESS.packed();
+    double multiplier = 1.0;
+    for (int i = 0; i < this.units.length; i++) {
+      LiteralUnit lu = this.units[i];
+      int num = numerator(this.exponents[i]);
+      int denom = denominator(this.exponents[i]);
+
+      h = 31 * (31 * h + lu.hashCode()) + this.exponents[i];
+      packed = DimensionVector.add(packed, DimensionVector.scale(lu.dv().packed(), num, denom));
+      // Math.pow(x, 1) is x exactly, and a plain product is much cheaper.
+      multiplier *=
+          this.exponents[i] == PACKED_ONE
+              ? lu.conversionMultiplier()
+              : Math.pow(lu.conversionMultiplier(), (double) num / denom);
+    }
+
+    // A trivial aggregate equals its literal unit, so it hashes the same.
+    this.hash = this.trivial() ? this.units[0].hashCode() : h;
+    this.dv = DimensionVector.canonical(packed);
+    this.conversionMultiplier = multiplier;
+
+    if (this.dv.unary() && this.units.length > 0) {
+      this.conversionOffset = this.units[0].conversionOffset();
     } else {
-      components = Collections.emptyMap();
+      this.conversionOffset = 0;
     }
   }
 
-  public AggregateUnit(Unit unit, int i, Unit unit1, int i1) {
-    this(unit, new SmallFraction(i), unit1, new SmallFraction(i1));
+  /** The number of distinct literal units in this aggregate. */
+  int size() {
+    return this.units.length;
   }
 
-  public AggregateUnit(Unit unit, SmallFraction i, Unit unit1, SmallFraction i1) {
-    components = new HashMap<>(5);
+  /** The i-th literal unit of this aggregate, in canonical order. */
+  LiteralUnit unit(int i) {
+    return this.units[i];
+  }
+
+  /** The exponent of the i-th literal unit of this aggregate. */
+  SmallFraction exponent(int i) {
+    return SmallFraction.of(numerator(this.exponents[i]), denominator(this.exponents[i]));
+  }
+
+  /** The exponent of the i-th literal unit of this aggregate, packed as by {@link #pack}. */
+  int packedExponent(int i) {
+    return this.exponents[i];
+  }
+
+  /**
+   * Returns the components of unit^i * unit1^i1. Units that are neither literal nor aggregate are
+   * ignored, as are components whose exponents cancel out.
+   */
+  private static Components merge(Unit unit, SmallFraction i, Unit unit1, SmallFraction i1) {
+    int len = length(unit);
+    int len1 = length(unit1);
+    LiteralUnit[] mergedUnits = new LiteralUnit[len + len1];
+    int[] mergedExponents = new int[len + len1];
+
+    int a = 0;
+    int b = 0;
+    int n = 0;
+    while (a < len || b < len1) {
+      int c;
+      if (a == len) {
+        c = 1;
+      } else if (b == len1) {
+        c = -1;
+      } else {
+        c = LiteralUnit.compare(unitAt(unit, a), unitAt(unit1, b));
+      }
+
+      LiteralUnit lu;
+      int exp;
+      if (c < 0) {
+        lu = unitAt(unit, a);
+        exp = times(exponentAt(unit, a++), i);
+      } else if (c > 0) {
+        lu = unitAt(unit1, b);
+        exp = times(exponentAt(unit1, b++), i1);
+      } else {
+        lu = unitAt(unit, a);
+        exp = plus(times(exponentAt(unit, a++), i), times(exponentAt(unit1, b++), i1));
+      }
+
+      if (numerator(exp) != 0) {
+        mergedUnits[n] = lu;
+        mergedExponents[n++] = exp;
+      }
+    }
+
+    if (n < mergedUnits.length) {
+      mergedUnits = n == 0 ? NO_UNITS : Arrays.copyOf(mergedUnits, n);
+      mergedExponents = n == 0 ? NO_EXPONENTS : Arrays.copyOf(mergedExponents, n);
+    }
+
+    return new Components(mergedUnits, mergedExponents);
+  }
+
+  /** Returns the components of the product of each unit raised to its exponent. */
+  private static Components components(Map<Unit, SmallFraction> unitMap) {
+    int len = 0;
+    for (Unit unit : unitMap.keySet()) {
+      len += length(unit);
+    }
+
+    LiteralUnit[] units = new LiteralUnit[len];
+    int[] exponents = new int[len];
+    int n = 0;
+    for (Map.Entry<Unit, SmallFraction> e : unitMap.entrySet()) {
+      for (int k = 0; k < length(e.getKey()); k++) {
+        units[n] = unitAt(e.getKey(), k);
+        exponents[n++] = times(exponentAt(e.getKey(), k), e.getValue());
+      }
+    }
+    return canonical(units, exponents);
+  }
+
+  /**
+   * Sorts units and packed exponents in place into canonical order, combining repeated units and
+   * dropping those whose exponents cancel out. Aggregates are small, so an insertion sort is
+   * enough.
+   */
+  private static Components canonical(LiteralUnit[] units, int[] exponents) {
+    for (int i = 1; i < units.length; i++) {
+      LiteralUnit lu = units[i];
+      int exp = exponents[i];
+      int j = i - 1;
+      for (; j >= 0 && LiteralUnit.compare(units[j], lu) > 0; j--) {
+        units[j + 1] = units[j];
+        exponents[j + 1] = exponents[j];
+      }
+      units[j + 1] = lu;
+      exponents[j + 1] = exp;
+    }
+
+    int n = 0;
+    for (int i = 0; i < units.length; i++) {
+      if (n > 0 && LiteralUnit.compare(units[n - 1], units[i]) == 0) {
+        exponents[n - 1] = plus(exponents[n - 1], exponents[i]);
+      } else {
+        units[n] = units[i];
+        exponents[n++] = exponents[i];
+      }
+      if (numerator(exponents[n - 1]) == 0) {
+        n--;
+      }
+    }
 
-    if (unit instanceof LiteralUnit lu) {
-      components.put(lu, i);
+    if (n == 0) {
+      return new Components(NO_UNITS, NO_EXPONENTS);
+    }
+    return n < units.length
+        ? new Components(Arrays.copyOf(units, n), Arrays.copyOf(exponents, n))
+        : new Components(units, exponents);
+  }
+
+  private static int length(Unit unit) {
+    if (unit instanceof LiteralUnit) {
+      return 1;
     } else if (unit instanceof AggregateUnit agg) {
-      agg.components.forEach((lu, lui) -> components.put(lu, SmallFraction.times(lui, i).reduce()));
+      return agg.units.length;
     }
 
-    if (unit1 instanceof LiteralUnit lu) {
-      components.computeIfPresent(lu, (u, prev) -> SmallFraction.plus(prev, i1));
-      components.computeIfAbsent(lu, u -> i1);
-    } else if (unit1 instanceof AggregateUnit agg) {
-      agg.components.forEach(
-          (lu, lui) -> {
-            SmallFraction sf = SmallFraction.times(lui, i1).reduce();
-            components.computeIfPresent(lu, (u, prev) -> SmallFraction.plus(prev, sf));
-            components.putIfAbsent(lu, sf);
-          });
+    return 0;
+  }
+
+  private static LiteralUnit unitAt(Unit unit, int i) {
+    return unit instanceof AggregateUnit agg ? agg.units[i] : (LiteralUnit) unit;
+  }
+
+  private static int exponentAt(Unit unit, int i) {
+    return unit instanceof AggregateUnit agg ? agg.exponents[i] : PACKED_ONE;
+  }
+
+  /** Packs a reduced exponent into an int, with the numerator above an 8-bit denominator. */
+  static int pack(int num, int denom) {
+    int gcd = gcd(Math.abs(num), denom);
+    if (gcd > 1) {
+      num /= gcd;
+      denom /= gcd;
     }
 
-    List<LiteralUnit> zeroes =
-        this.components.entrySet().stream()
-            .filter(e -> e.getValue().isZero())
-            .map(Entry::getKey)
-            .toList();
+    if (denom > DENOMINATOR_MASK) {
+      throw new ArithmeticException("Exponent " + num + "/" + denom + " is out of range");
+    }
 
-    zeroes.forEach(this.components::remove);
+    return num << DENOMINATOR_BITS | denom;
   }
 
-  public AggregateUnit(Map<Unit, SmallFraction> unitMap) {
-    components = new HashMap<>(5);
-
-    unitMap.forEach(
-        (unit1, i1) -> {
-          if (unit1 instanceof LiteralUnit lu) {
-            components.computeIfPresent(lu, (u, prev) -> SmallFraction.plus(prev, i1));
-            components.computeIfAbsent(lu, u -> i1);
-          } else if (unit1 instanceof AggregateUnit agg) {
-            agg.components.forEach(
-                (lu, lui) -> {
-                  SmallFraction sf = SmallFraction.times(lui, i1).reduce();
-                  components.computeIfPresent(lu, (u, prev) -> SmallFraction.plus(prev, sf));
-                  components.putIfAbsent(lu, sf);
-                });
-          }
-        });
-
-    List<LiteralUnit> zeroes =
-        this.components.entrySet().stream()
-            .filter(e -> e.getValue().isZero())
-            .map(Entry::getKey)
-            .toList();
-
-    zeroes.forEach(this.components::remove);
+  static int numerator(int exp) {
+    return exp >> DENOMINATOR_BITS;
+  }
+
+  static int denominator(int exp) {
+    return exp & DENOMINATOR_MASK;
+  }
+
+  private static int times(int exp, SmallFraction f) {
+    if (f.isOne()) {
+      return exp;
+    }
+
+    return pack(numerator(exp) * f.numerator(), denominator(exp) * f.denominator());
+  }
+
+  static int plus(int exp, int exp1) {
+    int denom = denominator(exp);
+    int denom1 = denominator(exp1);
+    if (denom == denom1) {
+      return pack(numerator(exp) + numerator(exp1), denom);
+    }
+
+    return pack(numerator(exp) * denom1 + numerator(exp1) * denom, denom * denom1);
+  }
+
+  private static int gcd(int a, int b) {
+    return b == 0 ? a : gcd(b, a % b);
   }
 
   @Override
@@ -98,43 +310,40 @@ public class AggregateUnit extends Unit {
 
   @Override
   public String symbol() {
-    return this.components.entrySet().stream()
-        .sorted(Comparator.comparing(e -> -e.getValue().floatValue()))
-        .map(
-            e -> {
-              if (e.getValue().isOne()) {
-                return e.getKey().symbol();
-              }
+    String symbol = this.symbol;
+    if (symbol == null) {
+      symbol =
+          IntStream.range(0, this.units.length)
+              .boxed()
+              .sorted(Comparator.comparing(i -> -this.exponent(i).floatValue()))
+              .map(
+                  i -> {
+                    if (this.exponents[i] == PACKED_ONE) {
+                      return this.units[i].symbol();
+                    }
 
-              return e.getKey().symbol() + numbersToSuperscript(e.getValue().toDecimalString());
-            })
-        .collect(Collectors.joining("⋅"));
+                    return this.units[i].symbol()
+                        + numbersToSuperscript(this.exponent(i).toDecimalString());
+                  })
+              .collect(Collectors.joining("⋅"));
+      this.symbol = symbol;
+    }
+    return symbol;
   }
 
   @Override
   public DimensionVector dv() {
-    return this.components.entrySet().stream()
-        .map(entry -> entry.getKey().dv().scaledBy(entry.getValue()))
-        .reduce(DimensionVector.DIMENSIONLESS, DimensionVector::add);
+    return this.dv;
   }
 
   @Override
   public double conversionMultiplier() {
-    return this.components.entrySet().stream()
-        .mapToDouble(e -> Math.pow(e.getKey().conversionMultiplier(), e.getValue().doubleValue()))
-        .reduce(1.0, (a, b) -> a * b);
+    return this.conversionMultiplier;
   }
 
   @Override
   public double conversionOffset() {
-    if (this.dv().unary()) {
-      return this.components.keySet().stream()
-          .mapToDouble(LiteralUnit::conversionOffset)
-          .findAny()
-          .orElse(0.);
-    }
-
-    return 0;
+    return this.conversionOffset;
   }
 
   public static String numbersToSuperscript(String input) {
@@ -159,14 +368,59 @@ public class AggregateUnit extends Unit {
   }
 
   public boolean trivial() {
-    return this.components.size() == 1 && this.components.values().iterator().next().isOne();
+    return this.units.length == 1 && this.exponents[0] == PACKED_ONE;
   }
 
   public LiteralUnit trivialToLiteral() {
     if (this.trivial()) {
-      return this.components.keySet().iterator().next();
+      return this.units[0];
     }
 
     return null;
   }
+
+  /**
+   * Returns a shared instance equal to this aggregate, so that repeated products of the same units
+   * can share one instance. At most {@link #MAX_INTERNED} aggregates are kept, and the least
+   * recently used are released beyond that, so an aggregate interned again after being released may
+   * come back as a different instance.
+   */
+  public AggregateUnit intern() {
+    AggregateUnit existing = INTERNED.putIfAbsent(this, this);
+    return existing == null ? this : existing;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+
+  /**
+   * Aggregates are equal when they have the same components with the same exponents. A trivial
+   * aggregate, a single unit with exponent 1, is also equal to that literal unit.
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj instanceof LiteralUnit lu) {
+      return this.trivial() && this.units[0].equals(lu);
+    }
+    if (!(obj instanceof AggregateUnit other)
+        || other.hash != this.hash
+        || !Arrays.equals(other.exponents, this.exponents)) {
+      return false;
+    }
+
+    for (int i = 0; i < this.units.length; i++) {
+      if (!this.units[i].equals(other.units[i])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private record Components(LiteralUnit[] units, int[] exponents) {}
 }
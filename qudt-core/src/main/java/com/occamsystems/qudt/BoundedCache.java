@@ -0,0 +1,149 @@
+package com.occamsystems.qudt;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>The bounded, thread-safe map behind {@link UnitCache}, the converters of {@link UnitIndex} and
+ * the interned aggregates of {@link AggregateUnit}. Lookups never lock. Only adding a new entry
+ * takes a lock, to queue it for eviction and to evict another entry when the cache is full, as
+ * chosen by the {@link UnitCache.Policy}.
+ */
+final class BoundedCache<K, V> {
+
+  private final int maxSize;
+  private final UnitCache.Policy policy;
+  private final Map<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+  // Entries in the order they were added, or last given a second chance. Guarded by itself.
+  private final Queue<Entry<K, V>> order = new ArrayDeque<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  BoundedCache(int maxSize, UnitCache.Policy policy) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Maximum size must not be negative: " + maxSize);
+    }
+
+    this.maxSize = maxSize;
+    this.policy = policy;
+  }
+
+  V get(K key) {
+    Entry<K, V> entry = this.entries.get(key);
+    if (entry == null) {
+      this.misses.increment();
+      return null;
+    }
+
+    if (this.policy == UnitCache.Policy.LRU && !entry.referenced) {
+      entry.referenced = true;
+    }
+    this.hits.increment();
+    return entry.value;
+  }
+
+  void put(K key, V value) {
+    if (this.maxSize == 0) {
+      return;
+    }
+
+    Entry<K, V> existing = this.entries.get(key);
+    if (existing != null) {
+      existing.value = value;
+      return;
+    }
+
+    Entry<K, V> entry = new Entry<>(key, value);
+    if (this.entries.putIfAbsent(key, entry) == null) {
+      this.enqueue(entry);
+    }
+  }
+
+  /**
+   * Adds the entry unless the key is already present, and returns the value already present or
+   * null. A present value counts as a hit and a new entry as a miss.
+   */
+  V putIfAbsent(K key, V value) {
+    Entry<K, V> existing = this.entries.get(key);
+    if (existing == null && this.maxSize > 0) {
+      Entry<K, V> entry = new Entry<>(key, value);
+      existing = this.entries.putIfAbsent(key, entry);
+      if (existing == null) {
+        this.enqueue(entry);
+      }
+    }
+
+    if (existing == null) {
+      this.misses.increment();
+      return null;
+    }
+    if (this.policy == UnitCache.Policy.LRU && !existing.referenced) {
+      existing.referenced = true;
+    }
+    this.hits.increment();
+    return existing.value;
+  }
+
+  private void enqueue(Entry<K, V> entry) {
+    synchronized (this.order) {
+      this.order.add(entry);
+      while (this.order.size() > this.maxSize) {
+        Entry<K, V> eldest = this.order.remove();
+        if (this.policy == UnitCache.Policy.LRU && eldest.referenced) {
+          eldest.referenced = false;
+          this.order.add(eldest);
+        } else if (this.entries.remove(eldest.key, eldest)) {
+          this.evictions.increment();
+        }
+      }
+    }
+  }
+
+  void clear() {
+    synchronized (this.order) {
+      this.entries.clear();
+      this.order.clear();
+    }
+  }
+
+  int size() {
+    return this.entries.size();
+  }
+
+  int maxSize() {
+    return this.maxSize;
+  }
+
+  UnitCache.Policy policy() {
+    return this.policy;
+  }
+
+  long hits() {
+    return this.hits.sum();
+  }
+
+  long misses() {
+    return this.misses.sum();
+  }
+
+  long evictions() {
+    return this.evictions.sum();
+  }
+
+  private static final class Entry<K, V> {
+    private final K key;
+    private volatile V value;
+    private volatile boolean referenced;
+
+    private Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+}
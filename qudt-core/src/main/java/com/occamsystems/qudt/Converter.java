@@ -0,0 +1,139 @@
+package com.occamsystems.qudt;
+
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Converts scaled values from one unit to another. Both units are folded into a single linear
+ * function, multiplier * x + offset, when the converter is created, so converting a value costs one
+ * multiply and one add. Converters are immutable and safe to share between threads.
+ *
+ * <p>Because the two units are folded together, results may differ from {@code
+ * to.scale(from.unscale(x))} in the last bit.
+ */
+public final class Converter implements DoubleUnaryOperator {
+  private final Unit from;
+  private final Unit to;
+  private final double multiplier;
+  private final double offset;
+
+  private Converter(Unit from, Unit to) {
+    this.from = from;
+    this.to = to;
+
+    double multiplier = from.conversionMultiplier() / to.conversionMultiplier();
+    this.multiplier = multiplier;
+    this.offset = from.conversionOffset() * multiplier - to.conversionOffset();
+  }
+
+  /**
+   * Creates a converter from one unit to another. Prefer {@link UnitIndex#converter(Unit, Unit)},
+   * which caches converters.
+   *
+   * @throws IllegalArgumentException if the units are not convertible.
+   */
+  public static Converter of(Unit from, Unit to) {
+    if (!from.isConvertible(to)) {
+      throw new IllegalArgumentException("Cannot convert " + from + " to " + to);
+    }
+
+    return new Converter(from, to);
+  }
+
+  public Unit from() {
+    return from;
+  }
+
+  public Unit to() {
+    return to;
+  }
+
+  public double multiplier() {
+    return multiplier;
+  }
+
+  public double offset() {
+    return offset;
+  }
+
+  /** Whether this converter returns its input unchanged. */
+  public boolean isIdentity() {
+    return multiplier == 1. && offset == 0.;
+  }
+
+  /** Converts a scaled value in the source unit to a scaled value in the target unit. */
+  public double convert(double value) {
+    return value * multiplier + offset;
+  }
+
+  @Override
+  public double applyAsDouble(double value) {
+    return value * multiplier + offset;
+  }
+
+  /**
+   * Converts every value in src, writing the results to the same positions in dst. src and dst may
+   * be the same array.
+   *
+   * @throws IllegalArgumentException if dst is shorter than src.
+   */
+  public void convert(double[] src, double[] dst) {
+    if (dst.length < src.length) {
+      throw new IllegalArgumentException(
+          "Destination length " + dst.length + " is less than source length " + src.length);
+    }
+
+    this.convert(src, 0, dst, 0, src.length);
+  }
+
+  /** Converts length values of src starting at srcPos, writing the results to dst from dstPos. */
+  public void convert(double[] src, int srcPos, double[] dst, int dstPos, int length) {
+    if (this.isIdentity()) {
+      System.arraycopy(src, srcPos, dst, dstPos, length);
+      return;
+    }
+
+    double m = this.multiplier;
+    double b = this.offset;
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = src[srcPos + i] * m + b;
+    }
+  }
+
+  /**
+   * Converts the remaining values of src, writing them to dst. Both buffers' positions advance past
+   * the values read and written, as with {@link DoubleBuffer#put(DoubleBuffer)}.
+   *
+   * @throws BufferOverflowException if dst has fewer values remaining than src.
+   */
+  public void convert(DoubleBuffer src, DoubleBuffer dst) {
+    int n = src.remaining();
+    if (dst.remaining() < n) {
+      throw new BufferOverflowException();
+    }
+
+    int srcPos = src.position();
+    int dstPos = dst.position();
+    if (src.hasArray() && dst.hasArray() && !dst.isReadOnly()) {
+      this.convert(
+          src.array(), src.arrayOffset() + srcPos, dst.array(), dst.arrayOffset() + dstPos, n);
+    } else {
+      double m = this.multiplier;
+      double b = this.offset;
+      for (int i = 0; i < n; i++) {
+        dst.put(dstPos + i, src.get(srcPos + i) * m + b);
+      }
+    }
+
+    src.position(srcPos + n);
+    dst.position(dstPos + n);
+  }
+
+  @Override
+  public String toString() {
+    return from + " -> " + to;
+  }
+}
@@ -1,16 +1,28 @@
 package com.occamsystems.qudt;
 
-import java.util.Arrays;
-
-/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+import com.occamsystems.qudt.predefined.DimensionVectors;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>The seven exponents are packed into a single long. Each of the low seven bytes holds a signed
+ * numerator, and the high byte holds a denominator shared by all exponents. The packed value is
+ * always fully reduced, so two vectors are equal exactly when their packed values are equal.
+ *
+ * <p>Vectors produced by arithmetic or by the builder are canonical instances, so vectors derived
+ * from units can be compared by reference. Predefined vectors are their own canonical instances.
+ */
 public class DimensionVector {
 
-  public static final DimensionVector DIMENSIONLESS = DimensionVector.builder().build();
+  private static final int DENOMINATOR_SHIFT = 56;
+  private static final long NUMERATOR_MASK = (1L << DENOMINATOR_SHIFT) - 1;
+  private static final long PACKED_DIMENSIONLESS = 1L << DENOMINATOR_SHIFT;
+
+  public static final DimensionVector DIMENSIONLESS = new DimensionVector(PACKED_DIMENSIONLESS);
   public static final String DIMENSIONLESS_NAME = "A0E0L0I0M0H0T0D1";
   public static final String DIMENSIONLESS_CODE = "D1";
   public static final String QKDV = "http://qudt.org/vocab/dimensionvector/";
   public static final String LOCAL_NAME_REGEX = "[AELIMHTD]";
-  private final SmallFraction[] vector = new SmallFraction[7];
   public static final int amountOfSubstance = 0;
   public static final int electricCurrent = 1;
   public static final int length = 2;
@@ -21,6 +33,11 @@ public class DimensionVector {
 
   private static final char[] dimesionChars = "AELIMHTD".toCharArray();
 
+  private final long packed;
+  private String localName;
+  private String indexCode;
+  private String uri;
+
   public static Builder builder() {
     return new Builder();
   }
@@ -30,18 +47,15 @@ public class DimensionVector {
     String localName = names[names.length - 1];
     String regex = LOCAL_NAME_REGEX;
     String[] split = localName.split(regex);
-    int[] array = new int[14];
+    SmallFraction[] vector = new SmallFraction[7];
     if (split.length >= 9) {
       for (int i = 0; i < 7; i++) {
         String expStr = split[i + 1];
         String numStr = expStr.replaceAll("[(dot)(pt)]", ".");
-        this.vector[i] = SmallFraction.approximate(Double.parseDouble(numStr));
-      }
-    } else {
-      for (int i = 0; i < 7; i++) {
-        this.vector[i] = SmallFraction.ZERO;
+        vector[i] = SmallFraction.approximate(Double.parseDouble(numStr));
       }
     }
+    this.packed = pack(vector);
   }
 
   public DimensionVector(int[] numDenomArray) {
@@ -53,20 +67,48 @@ public class DimensionVector {
     }
 
     boolean hasDenoms = numDenomArray.length == 14;
+    SmallFraction[] vector = new SmallFraction[7];
 
     for (int i = 0; i < 7; i++) {
       if (hasDenoms) {
-        this.vector[i] = new SmallFraction(numDenomArray[2 * i], numDenomArray[2 * i + 1]);
+        vector[i] = SmallFraction.of(numDenomArray[2 * i], numDenomArray[2 * i + 1]);
       } else {
-        this.vector[i] = new SmallFraction(numDenomArray[i]);
+        vector[i] = SmallFraction.of(numDenomArray[i]);
       }
     }
+
+    this.packed = pack(vector);
   }
 
   public DimensionVector(SmallFraction[] smallFractions) {
-    for (int i = 0; i < smallFractions.length; i++) {
-      this.vector[i] = smallFractions[i];
-    }
+    this.packed = pack(smallFractions);
+  }
+
+  DimensionVector(long packed) {
+    this.packed = packed;
+  }
+
+  /**
+   * Returns the canonical instance equal to this vector. If there is none yet, this vector becomes
+   * the canonical instance.
+   */
+  public DimensionVector intern() {
+    DimensionVector canonical = Interned.get(this.packed);
+    return canonical != null ? canonical : Interned.putIfAbsent(this);
+  }
+
+  /** Returns the canonical instance for a packed vector, creating it if needed. */
+  static DimensionVector canonical(long packed) {
+    DimensionVector canonical = Interned.get(packed);
+    return canonical != null ? canonical : Interned.putIfAbsent(new DimensionVector(packed));
+  }
+
+  /**
+   * Returns the packed representation of this vector. Equal vectors always have equal packed
+   * values.
+   */
+  public long packed() {
+    return this.packed;
   }
 
   public boolean dimensionless() {
@@ -74,24 +116,21 @@ public class DimensionVector {
   }
 
   public boolean isEmpty() {
-    for (int i = 0; i < vector.length; i++) {
-      if (!vector[i].isZero()) {
-        return false;
-      }
-    }
-    return true;
+    return (this.packed & NUMERATOR_MASK) == 0;
   }
 
   public boolean unary() {
+    int denom = denominator(this.packed);
     boolean foundOne = false;
-    for (int i = 0; i < vector.length; i++) {
-      if (vector[i].isOne()) {
+    for (int i = 0; i < 7; i++) {
+      int num = numerator(this.packed, i);
+      if (num == denom) {
         if (foundOne) {
           return false;
         } else {
           foundOne = true;
         }
-      } else if (!vector[i].isZero()) {
+      } else if (num != 0) {
         return false;
       }
     }
@@ -99,18 +138,29 @@ public class DimensionVector {
   }
 
   public DimensionVector scaledBy(SmallFraction value) {
-    SmallFraction[] scaled = new SmallFraction[7];
-    for (int i = 0; i < this.vector.length; i++) {
-      scaled[i] = SmallFraction.times(this.vector[i], value);
-    }
-    return new DimensionVector(scaled);
+    return canonical(scale(this.packed, value.numerator(), value.denominator()));
   }
 
   public String uri() {
-    return QKDV + localName();
+    String uri = this.uri;
+    if (uri == null) {
+      uri = QKDV + localName();
+      this.uri = uri;
+    }
+    return uri;
   }
 
+  /** The local name is computed once and then cached, as are the index code and URI. */
   public String localName() {
+    String localName = this.localName;
+    if (localName == null) {
+      localName = this.buildLocalName();
+      this.localName = localName;
+    }
+    return localName;
+  }
+
+  private String buildLocalName() {
     if (this.isEmpty()) {
       return DIMENSIONLESS_NAME;
     }
@@ -118,59 +168,77 @@ public class DimensionVector {
     StringBuilder b = new StringBuilder();
     for (int i = 0; i < 7; i++) {
       b.append(dimesionChars[i]);
-      b.append(vector[i].toDecimalString());
+      b.append(this.exponent(i).toDecimalString());
     }
 
     return b.append("D0").toString().replace(".", "dot");
   }
 
   public String indexCode() {
+    String indexCode = this.indexCode;
+    if (indexCode == null) {
+      indexCode = this.buildIndexCode();
+      this.indexCode = indexCode;
+    }
+    return indexCode;
+  }
+
+  private String buildIndexCode() {
     StringBuilder b = new StringBuilder();
 
     for (int i = 0; i < 7; i++) {
-      if (!vector[i].isZero()) {
+      if (numerator(this.packed, i) != 0) {
         b.append(dimesionChars[i]);
-        b.append(vector[i].toDecimalString());
+        b.append(this.exponent(i).toDecimalString());
       }
     }
 
     return b.isEmpty() ? DIMENSIONLESS_CODE : b.toString().replace(".", "dot").replace("-", "_");
   }
 
+  private SmallFraction exponent(int i) {
+    return SmallFraction.of(numerator(this.packed, i), denominator(this.packed));
+  }
+
   public SmallFraction amount() {
-    return this.vector[amountOfSubstance];
+    return this.exponent(amountOfSubstance);
   }
 
   public SmallFraction current() {
-    return this.vector[electricCurrent];
+    return this.exponent(electricCurrent);
   }
 
   public SmallFraction length() {
-    return this.vector[length];
+    return this.exponent(length);
   }
 
   public SmallFraction luminous() {
-    return this.vector[luminousIntensity];
+    return this.exponent(luminousIntensity);
   }
 
   public SmallFraction mass() {
-    return this.vector[mass];
+    return this.exponent(mass);
   }
 
   public SmallFraction temperature() {
-    return this.vector[thermodynamicTemperature];
+    return this.exponent(thermodynamicTemperature);
   }
 
   public SmallFraction time() {
-    return this.vector[time];
+    return this.exponent(time);
   }
 
   public SmallFraction dimensionlessExponent() {
     return this.dimensionless() ? SmallFraction.ONE : SmallFraction.ZERO;
   }
 
+  /** Returns a copy of the exponents of this vector, in the order of the index constants. */
   public SmallFraction[] vector() {
-    return this.vector;
+    SmallFraction[] vector = new SmallFraction[7];
+    for (int i = 0; i < 7; i++) {
+      vector[i] = this.exponent(i);
+    }
+    return vector;
   }
 
   public static boolean isSemanticUri(String uri) {
@@ -180,11 +248,144 @@ public class DimensionVector {
   }
 
   public static DimensionVector add(DimensionVector a, DimensionVector b) {
-    SmallFraction[] scaled = new SmallFraction[7];
+    return canonical(add(a.packed, b.packed));
+  }
+
+  /** Adds two packed vectors. */
+  static long add(long a, long b) {
+    int denomA = denominator(a);
+    int denomB = denominator(b);
+
+    if (denomA == denomB) {
+      long sum = 0;
+      for (int i = 0; i < 7; i++) {
+        sum |= lane(numerator(a, i) + numerator(b, i), i);
+      }
+      return denomA == 1 ? sum | PACKED_DIMENSIONLESS : reduce(sum, denomA);
+    }
+
+    int denom = denomA / gcd(denomA, denomB) * denomB;
+    return combine(a, denom / denomA, b, denom / denomB, denom);
+  }
+
+  /** Multiplies every exponent of a packed vector by num/denom. */
+  static long scale(long packed, int num, int denom) {
+    if (denom == 1 && denominator(packed) == 1) {
+      long scaled = PACKED_DIMENSIONLESS;
+      for (int i = 0; i < 7; i++) {
+        scaled |= lane(numerator(packed, i) * num, i);
+      }
+      return scaled;
+    }
+
+    return combine(packed, num, 0, 0, denominator(packed) * denom);
+  }
+
+  /**
+   * Packs the exponents numerator(a, i) * multA + numerator(b, i) * multB over denom, reduced. Like
+   * {@link #pack(int[], int)}, but computes each exponent twice rather than allocating an array for
+   * them, so fractional arithmetic on packed vectors allocates nothing.
+   */
+  private static long combine(long a, int multA, long b, int multB, int denom) {
+    int sign = 1;
+    if (denom < 0) {
+      sign = -1;
+      denom = -denom;
+    }
+
+    int gcd = denom;
+    for (int i = 0; i < 7 && gcd > 1; i++) {
+      gcd = gcd(Math.abs(numerator(a, i) * multA + numerator(b, i) * multB), gcd);
+    }
+
+    if (denom / gcd > 0xFF) {
+      throw new ArithmeticException("Dimension exponent denominator out of range: " + denom);
+    }
+
+    long packed = ((long) (denom / gcd)) << DENOMINATOR_SHIFT;
+    for (int i = 0; i < 7; i++) {
+      packed |= lane(sign * (numerator(a, i) * multA + numerator(b, i) * multB) / gcd, i);
+    }
+    return packed;
+  }
+
+  static int numerator(long packed, int i) {
+    return (byte) (packed >>> (8 * i));
+  }
+
+  static int denominator(long packed) {
+    return (int) (packed >>> DENOMINATOR_SHIFT);
+  }
+
+  private static long lane(int num, int i) {
+    if (num < Byte.MIN_VALUE || num > Byte.MAX_VALUE) {
+      throw new ArithmeticException("Dimension exponent out of range: " + num);
+    }
+    return (num & 0xFFL) << (8 * i);
+  }
+
+  private static long pack(SmallFraction[] vector) {
+    int denom = 1;
+    for (int i = 0; i < 7; i++) {
+      if (i < vector.length && vector[i] != null) {
+        int d = vector[i].denominator();
+        denom = denom / gcd(denom, d) * d;
+      }
+    }
+
+    int[] nums = new int[7];
+    for (int i = 0; i < 7; i++) {
+      if (i < vector.length && vector[i] != null) {
+        nums[i] = vector[i].numerator() * (denom / vector[i].denominator());
+      }
+    }
+
+    return pack(nums, denom);
+  }
+
+  private static long pack(int[] nums, int denom) {
+    if (denom < 0) {
+      denom = -denom;
+      for (int i = 0; i < 7; i++) {
+        nums[i] = -nums[i];
+      }
+    }
+
+    int gcd = denom;
+    for (int i = 0; i < 7 && gcd > 1; i++) {
+      gcd = gcd(Math.abs(nums[i]), gcd);
+    }
+
+    if (denom / gcd > 0xFF) {
+      throw new ArithmeticException("Dimension exponent denominator out of range: " + denom);
+    }
+
+    long packed = ((long) (denom / gcd)) << DENOMINATOR_SHIFT;
+    for (int i = 0; i < 7; i++) {
+      packed |= lane(nums[i] / gcd, i);
+    }
+    return packed;
+  }
+
+  private static long reduce(long numerators, int denom) {
+    int gcd = denom;
+    for (int i = 0; i < 7 && gcd > 1; i++) {
+      gcd = gcd(Math.abs(numerator(numerators, i)), gcd);
+    }
+
+    if (gcd == 1) {
+      return numerators | ((long) denom) << DENOMINATOR_SHIFT;
+    }
+
+    long packed = ((long) (denom / gcd)) << DENOMINATOR_SHIFT;
     for (int i = 0; i < 7; i++) {
-      scaled[i] = SmallFraction.plus(a.vector[i], b.vector[i]);
+      packed |= lane(numerator(numerators, i) / gcd, i);
     }
-    return new DimensionVector(scaled);
+    return packed;
+  }
+
+  private static int gcd(int a, int b) {
+    return b == 0 ? a : gcd(b, a % b);
   }
 
   @Override
@@ -201,16 +402,81 @@ public class DimensionVector {
       return false;
     }
     DimensionVector that = (DimensionVector) o;
-    return Arrays.equals(vector, that.vector);
+    return this.packed == that.packed;
   }
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(vector);
+    return Long.hashCode(this.packed);
   }
 
   public boolean equivalent(DimensionVector other) {
-    return other != null && Arrays.equals(vector, other.vector);
+    return this == other || (other != null && this.packed == other.packed);
+  }
+
+  /**
+   * An open-addressed table of canonical vectors, keyed on their packed values. Lookups never lock
+   * or allocate. Insertions are synchronized, and growing the table publishes a new array.
+   */
+  private static final class Interned {
+    private static volatile DimensionVector[] table = new DimensionVector[512];
+    private static int size = 0;
+
+    static {
+      for (DimensionVector dv : DimensionVectors.PREDEFINED) {
+        putIfAbsent(dv);
+      }
+      putIfAbsent(DIMENSIONLESS);
+    }
+
+    static DimensionVector get(long packed) {
+      DimensionVector[] t = table;
+      int mask = t.length - 1;
+      for (int i = slot(packed, mask); ; i = (i + 1) & mask) {
+        DimensionVector dv = t[i];
+        if (dv == null || dv.packed == packed) {
+          return dv;
+        }
+      }
+    }
+
+    static synchronized DimensionVector putIfAbsent(DimensionVector dv) {
+      DimensionVector existing = get(dv.packed);
+      if (existing != null) {
+        return existing;
+      }
+
+      DimensionVector[] t = table;
+      if (2 * (size + 1) > t.length) {
+        DimensionVector[] grown = new DimensionVector[2 * t.length];
+        for (DimensionVector old : t) {
+          if (old != null) {
+            insert(grown, old);
+          }
+        }
+        insert(grown, dv);
+        table = grown;
+      } else {
+        insert(t, dv);
+      }
+
+      size++;
+      return dv;
+    }
+
+    private static void insert(DimensionVector[] t, DimensionVector dv) {
+      int mask = t.length - 1;
+      int i = slot(dv.packed, mask);
+      while (t[i] != null) {
+        i = (i + 1) & mask;
+      }
+      t[i] = dv;
+    }
+
+    private static int slot(long packed, int mask) {
+      long h = packed * 0x9E3779B97F4A7C15L;
+      return (int) (h >>> 32) & mask;
+    }
   }
 
   public static class Builder {
@@ -223,7 +489,7 @@ public class DimensionVector {
     private SmallFraction time = SmallFraction.ZERO;
 
     public Builder withAmountOfSubstance(int i) {
-      return withAmountOfSubstance(new SmallFraction(i));
+      return withAmountOfSubstance(SmallFraction.of(i));
     }
 
     public Builder withAmountOfSubstance(SmallFraction amountOfSubstance) {
@@ -232,7 +498,7 @@ public class DimensionVector {
     }
 
     public Builder withElectricCurrent(int i) {
-      return withElectricCurrent(new SmallFraction(i));
+      return withElectricCurrent(SmallFraction.of(i));
     }
 
     public Builder withElectricCurrent(SmallFraction electricCurrent) {
@@ -241,7 +507,7 @@ public class DimensionVector {
     }
 
     public Builder withLength(int i) {
-      return withLength(new SmallFraction(i));
+      return withLength(SmallFraction.of(i));
     }
 
     public Builder withLength(SmallFraction length) {
@@ -250,7 +516,7 @@ public class DimensionVector {
     }
 
     public Builder withLuminousIntensity(int i) {
-      return withLuminousIntensity(new SmallFraction(i));
+      return withLuminousIntensity(SmallFraction.of(i));
     }
 
     public Builder withLuminousIntensity(SmallFraction luminousIntensity) {
@@ -259,7 +525,7 @@ public class DimensionVector {
     }
 
     public Builder withMass(int i) {
-      return withMass(new SmallFraction(i));
+      return withMass(SmallFraction.of(i));
     }
 
     public Builder withMass(SmallFraction mass) {
@@ -268,7 +534,7 @@ public class DimensionVector {
     }
 
     public Builder withThermodynamicTemperature(int i) {
-      return withThermodynamicTemperature(new SmallFraction(i));
+      return withThermodynamicTemperature(SmallFraction.of(i));
     }
 
     public Builder withThermodynamicTemperature(SmallFraction thermodynamicTemperature) {
@@ -277,7 +543,7 @@ public class DimensionVector {
     }
 
     public Builder withTime(int i) {
-      return withTime(new SmallFraction(i));
+      return withTime(SmallFraction.of(i));
     }
 
     public Builder withTime(SmallFraction time) {
@@ -286,16 +552,17 @@ public class DimensionVector {
     }
 
     public DimensionVector build() {
-      return new DimensionVector(
-          new SmallFraction[] {
-            this.amountOfSubstance,
-            this.electricCurrent,
-            this.length,
-            this.luminousIntensity,
-            this.mass,
-            this.thermodynamicTemperature,
-            this.time
-          });
+      return canonical(
+          pack(
+              new SmallFraction[] {
+                this.amountOfSubstance,
+                this.electricCurrent,
+                this.length,
+                this.luminousIntensity,
+                this.mass,
+                this.thermodynamicTemperature,
+                this.time
+              }));
     }
   }
 }
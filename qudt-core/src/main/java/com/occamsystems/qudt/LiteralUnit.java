@@ -10,6 +10,7 @@ public class LiteralUnit extends Unit {
   private double conversionOffset;
   private double conversionMultiplier;
   private QuantityKind[] quantityKinds;
+  private int hash;
 
   public LiteralUnit(
       String label,
@@ -64,4 +65,45 @@ public class LiteralUnit extends Unit {
   public QuantityKind[] quantityKinds() {
     return quantityKinds;
   }
+
+  @Override
+  public int hashCode() {
+    int h = this.hash;
+    if (h == 0) {
+      h = super.hashCode();
+      this.hash = h;
+    }
+    return h;
+  }
+
+  /** A literal unit is also equal to a trivial aggregate of itself with exponent 1. */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof AggregateUnit agg) {
+      return agg.equals(this);
+    }
+    return super.equals(obj);
+  }
+
+  /**
+   * A total order over literal units, consistent with {@link #equals}. Units are ordered by symbol,
+   * then dimension vector and conversion.
+   */
+  static int compare(LiteralUnit a, LiteralUnit b) {
+    if (a == b) {
+      return 0;
+    }
+
+    int c = a.symbol.compareTo(b.symbol);
+    if (c == 0) {
+      c = Long.compare(a.dv.packed(), b.dv.packed());
+    }
+    if (c == 0) {
+      c = Double.compare(a.conversionMultiplier, b.conversionMultiplier);
+    }
+    if (c == 0) {
+      c = Double.compare(a.conversionOffset, b.conversionOffset);
+    }
+    return c;
+  }
 }
@@ -0,0 +1,188 @@
+package com.occamsystems.qudt;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Scans and parses decimal numbers in place within a CharSequence, without regular expressions
+ * or intermediate strings.
+ *
+ * <p>Numbers with at most 18 significant digits and a small decimal exponent are parsed exactly
+ * with a single multiplication or division of doubles, which gives the same correctly rounded
+ * result as {@link Double#parseDouble(String)}. Anything else falls back to Double.parseDouble, so
+ * results and exceptions are always the same as it would give.
+ */
+final class NumberScanner {
+
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final int MAX_DIGITS = 18;
+
+  private NumberScanner() {}
+
+  /**
+   * Returns the index just past the longest number starting at {@code start}, where a number is
+   * {@code [-+]?[\d,]*(\.\d+)?([eE][-+]?\d+)?}. Returns {@code start} if there is none.
+   */
+  static int scan(CharSequence s, int start, int end) {
+    int i = start;
+    if (i < end && isSign(s.charAt(i))) {
+      i++;
+    }
+    while (i < end && (isDigit(s.charAt(i)) || s.charAt(i) == ',')) {
+      i++;
+    }
+    i = scanFraction(s, i, end);
+
+    if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      int j = i + 1;
+      if (j < end && isSign(s.charAt(j))) {
+        j++;
+      }
+      if (j < end && isDigit(s.charAt(j))) {
+        while (j < end && isDigit(s.charAt(j))) {
+          j++;
+        }
+        i = j;
+      }
+    }
+
+    return i;
+  }
+
+  /**
+   * Returns the index just past the longest unit exponent starting at {@code start}, where an
+   * exponent is {@code [-+]?[\d,]*(\.\d+)?}.
+   */
+  static int scanExponent(CharSequence s, int start, int end) {
+    int i = start;
+    if (i < end && isSign(s.charAt(i))) {
+      i++;
+    }
+    while (i < end && (isDigit(s.charAt(i)) || s.charAt(i) == ',')) {
+      i++;
+    }
+    return scanFraction(s, i, end);
+  }
+
+  /**
+   * Parses {@code s[start, end)} as Double.parseDouble would.
+   *
+   * @throws NumberFormatException if the characters are not a number.
+   */
+  static double parse(CharSequence s, int start, int end) {
+    return parse(s, start, end, false);
+  }
+
+  /**
+   * Parses {@code s[start, end)} as Double.parseDouble would after removing every comma, so that
+   * commas may be used as thousands separators.
+   *
+   * @throws NumberFormatException if the characters are not a number once commas are removed.
+   */
+  static double parseGrouped(CharSequence s, int start, int end) {
+    return parse(s, start, end, true);
+  }
+
+  private static double parse(CharSequence s, int start, int end, boolean grouped) {
+    int i = start;
+    boolean negative = false;
+    if (i < end && isSign(s.charAt(i))) {
+      negative = s.charAt(i) == '-';
+      i++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int exponent = 0;
+    boolean any = false;
+    boolean fraction = false;
+    for (; i < end; i++) {
+      char c = s.charAt(i);
+      if (isDigit(c)) {
+        any = true;
+        if (mantissa != 0 || c != '0') {
+          if (++digits > MAX_DIGITS) {
+            return fallback(s, start, end, grouped);
+          }
+          mantissa = mantissa * 10 + (c - '0');
+        }
+        if (fraction) {
+          exponent--;
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else if (c == ',' && grouped && !fraction) {
+        // Thousands separator.
+      } else {
+        break;
+      }
+    }
+
+    if (i < end && any && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && isSign(s.charAt(i))) {
+        negativeExponent = s.charAt(i) == '-';
+        i++;
+      }
+      int explicit = 0;
+      int expStart = i;
+      for (; i < end && isDigit(s.charAt(i)) && i - expStart < 4; i++) {
+        explicit = explicit * 10 + (s.charAt(i) - '0');
+      }
+      if (i == expStart) {
+        return fallback(s, start, end, grouped);
+      }
+      exponent += negativeExponent ? -explicit : explicit;
+    }
+
+    if (i != end || !any || mantissa > MAX_EXACT_MANTISSA) {
+      return fallback(s, start, end, grouped);
+    }
+
+    double value;
+    if (mantissa == 0) {
+      value = 0;
+    } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+      value = mantissa * POWERS_OF_TEN[exponent];
+    } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+      value = mantissa / POWERS_OF_TEN[-exponent];
+    } else {
+      return fallback(s, start, end, grouped);
+    }
+
+    return negative ? -value : value;
+  }
+
+  private static double fallback(CharSequence s, int start, int end, boolean grouped) {
+    StringBuilder b = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c != ',' || !grouped) {
+        b.append(c);
+      }
+    }
+    return Double.parseDouble(b.toString());
+  }
+
+  private static int scanFraction(CharSequence s, int i, int end) {
+    if (i + 1 < end && s.charAt(i) == '.' && isDigit(s.charAt(i + 1))) {
+      i += 2;
+      while (i < end && isDigit(s.charAt(i))) {
+        i++;
+      }
+    }
+    return i;
+  }
+
+  static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isSign(char c) {
+    return c == '-' || c == '+';
+  }
+}
@@ -0,0 +1,228 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.D1Units;
+import java.util.Arrays;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A mutable, reusable quantity for folding many quantities together without creating a unit for
+ * every step. The running value is kept unscaled, and the running unit is kept as a packed
+ * dimension vector plus parallel arrays of literal units and packed exponents. A {@link Unit} is
+ * only created by {@link #toQuantityValue()}, so a loop such as
+ *
+ * <pre>
+ * QuantityAccumulator energy = new QuantityAccumulator();
+ * for (int i = 0; i &lt; n; i++) {
+ *   energy.plusProduct(power[i], dt[i]);
+ * }
+ * QuantityValue total = energy.toQuantityValue();
+ * </pre>
+ *
+ * <p>allocates nothing per iteration once the unit arrays have grown to fit. That holds for
+ * fractional exponents too, such as the m^½ of a noise density.
+ *
+ * <p>An accumulator starts out as the number 0. As with {@link QuantityValue#add}, adding to a zero
+ * value adopts the unit of whatever is added. Accumulators are not thread-safe.
+ */
+public class QuantityAccumulator {
+
+  private double unscaled;
+  private long dv = DimensionVector.DIMENSIONLESS.packed();
+  private LiteralUnit[] units = new LiteralUnit[4];
+  private int[] exponents = new int[4];
+  private int n;
+
+  /** Creates an accumulator holding the number 0. */
+  public QuantityAccumulator() {}
+
+  /** Creates an accumulator holding the given quantity. */
+  public QuantityAccumulator(QuantityValue initial) {
+    this.set(initial);
+  }
+
+  /** Resets this accumulator to the number 0. */
+  public QuantityAccumulator reset() {
+    this.unscaled = 0;
+    this.clearUnit();
+    return this;
+  }
+
+  /** Replaces the value and unit of this accumulator with the given quantity. */
+  public QuantityAccumulator set(QuantityValue value) {
+    this.unscaled = value.unscaled;
+    this.clearUnit();
+    this.accumulate(value.unit, false);
+    return this;
+  }
+
+  /** The running unscaled value. */
+  public double unscaled() {
+    return unscaled;
+  }
+
+  /** The running dimension vector. */
+  public DimensionVector dv() {
+    return DimensionVector.canonical(this.dv);
+  }
+
+  /**
+   * Adds a quantity to the running value.
+   *
+   * @throws IllegalArgumentException if the quantity's dimensions differ from the running value's.
+   */
+  public QuantityAccumulator plus(QuantityValue value) {
+    if (this.adoptIfZero(value.unit)) {
+      this.unscaled = value.unscaled;
+      return this;
+    }
+
+    this.checkDimensions(value.unit.dv().packed());
+    this.unscaled += value.unscaled;
+    return this;
+  }
+
+  /**
+   * Subtracts a quantity from the running value.
+   *
+   * @throws IllegalArgumentException if the quantity's dimensions differ from the running value's.
+   */
+  public QuantityAccumulator minus(QuantityValue value) {
+    if (this.adoptIfZero(value.unit)) {
+      this.unscaled = -value.unscaled;
+      return this;
+    }
+
+    this.checkDimensions(value.unit.dv().packed());
+    this.unscaled -= value.unscaled;
+    return this;
+  }
+
+  /**
+   * Adds the product of two quantities to the running value, without creating the product's unit.
+   * This is the step for reductions such as energy = Σ power⋅dt.
+   *
+   * @throws IllegalArgumentException if the product's dimensions differ from the running value's.
+   */
+  public QuantityAccumulator plusProduct(QuantityValue a, QuantityValue b) {
+    long productDv = DimensionVector.add(a.unit.dv().packed(), b.unit.dv().packed());
+    if (this.unscaled == 0.) {
+      this.clearUnit();
+      this.accumulate(a.unit, false);
+      this.accumulate(b.unit, false);
+      this.unscaled = a.unscaled * b.unscaled;
+      return this;
+    }
+
+    this.checkDimensions(productDv);
+    this.unscaled += a.unscaled * b.unscaled;
+    return this;
+  }
+
+  /** Multiplies the running value and unit by a quantity. */
+  public QuantityAccumulator times(QuantityValue value) {
+    this.unscaled *= value.unscaled;
+    this.accumulate(value.unit, false);
+    return this;
+  }
+
+  /** Multiplies the running value by a number. */
+  public QuantityAccumulator times(double value) {
+    this.unscaled *= value;
+    return this;
+  }
+
+  /** Divides the running value and unit by a quantity. */
+  public QuantityAccumulator dividedBy(QuantityValue value) {
+    this.unscaled /= value.unscaled;
+    this.accumulate(value.unit, true);
+    return this;
+  }
+
+  /** Divides the running value by a number. */
+  public QuantityAccumulator dividedBy(double value) {
+    this.unscaled /= value;
+    return this;
+  }
+
+  /**
+   * Creates the running unit and a QuantityValue holding the running value. A running unit that is
+   * exactly one literal unit is returned as that unit, and a dimensionless running unit with no
+   * components is returned as {@link D1Units#NUM}.
+   */
+  public QuantityValue toQuantityValue() {
+    return QuantityValue.ofUnscaled(this.unscaled, this.toUnit());
+  }
+
+  private Unit toUnit() {
+    int single = -1;
+    for (int i = 0; i < this.n; i++) {
+      if (AggregateUnit.numerator(this.exponents[i]) != 0) {
+        if (single >= 0 || this.exponents[i] != AggregateUnit.PACKED_ONE) {
+          return new AggregateUnit(this.units, this.exponents, this.n);
+        }
+        single = i;
+      }
+    }
+
+    return single >= 0 ? this.units[single] : D1Units.NUM.u;
+  }
+
+  private boolean adoptIfZero(Unit unit) {
+    if (this.unscaled != 0.) {
+      return false;
+    }
+
+    this.clearUnit();
+    this.accumulate(unit, false);
+    return true;
+  }
+
+  private void checkDimensions(long other) {
+    if (other != this.dv) {
+      throw new IllegalArgumentException(
+          DimensionVector.canonical(other) + " is not convertible to " + this.dv());
+    }
+  }
+
+  private void clearUnit() {
+    this.dv = DimensionVector.DIMENSIONLESS.packed();
+    Arrays.fill(this.units, 0, this.n, null);
+    this.n = 0;
+  }
+
+  private void accumulate(Unit unit, boolean inverse) {
+    if (unit instanceof LiteralUnit lu) {
+      this.accumulate(lu, inverse ? AggregateUnit.pack(-1, 1) : AggregateUnit.PACKED_ONE);
+    } else if (unit instanceof AggregateUnit agg) {
+      for (int i = 0; i < agg.size(); i++) {
+        int exp = agg.packedExponent(i);
+        if (inverse) {
+          exp = AggregateUnit.pack(-AggregateUnit.numerator(exp), AggregateUnit.denominator(exp));
+        }
+        this.accumulate(agg.unit(i), exp);
+      }
+    }
+  }
+
+  private void accumulate(LiteralUnit lu, int exp) {
+    int num = AggregateUnit.numerator(exp);
+    this.dv =
+        DimensionVector.add(
+            this.dv, DimensionVector.scale(lu.dv().packed(), num, AggregateUnit.denominator(exp)));
+
+    for (int i = 0; i < this.n; i++) {
+      if (this.units[i] == lu || this.units[i].equals(lu)) {
+        this.exponents[i] = AggregateUnit.plus(this.exponents[i], exp);
+        return;
+      }
+    }
+
+    if (this.n == this.units.length) {
+      this.units = Arrays.copyOf(this.units, this.n * 2);
+      this.exponents = Arrays.copyOf(this.exponents, this.n * 2);
+    }
+    this.units[this.n] = lu;
+    this.exponents[this.n++] = exp;
+  }
+}
@@ -0,0 +1,422 @@
+package com.occamsystems.qudt;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A column of quantities stored as one {@link Unit} and a double[] of unscaled values. This
+ * takes 8 bytes per quantity, where an array of QuantityValues takes an object header and a unit
+ * pointer per quantity as well. As with QuantityValue, changing the unit never touches the values.
+ *
+ * <p>Element-wise operations run directly over the arrays, and any unit algebra is done once per
+ * column rather than once per value. As with QuantityValue, non-mutating operations allocate a new
+ * QuantityArray, while mutating operations update this one in place. Operations that combine two
+ * columns require them to have the same size.
+ */
+public class QuantityArray implements QuantityColumn {
+
+  Unit unit;
+  final double[] unscaled;
+
+  protected QuantityArray(double[] unscaled, Unit unit) {
+    this.unscaled = unscaled;
+    this.unit = unit;
+  }
+
+  /** Creates a column of the given size in which every value is zero. */
+  public static QuantityArray zeros(int size, Unit unit) {
+    return new QuantityArray(new double[size], unit);
+  }
+
+  /** Creates a column from values scaled to the given unit. The values are copied. */
+  public static QuantityArray ofScaled(double[] values, Unit unit) {
+    double[] unscaled = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      unscaled[i] = unit.unscale(values[i]);
+    }
+    return new QuantityArray(unscaled, unit);
+  }
+
+  /**
+   * Creates a column backed by the given unscaled values. The array is not copied, so later changes
+   * to it are visible through the column and vice versa.
+   */
+  public static QuantityArray ofUnscaled(double[] unscaled, Unit unit) {
+    return new QuantityArray(unscaled, unit);
+  }
+
+  /**
+   * Creates a column from individual quantities, which must all be convertible to the given unit.
+   *
+   * @throws IllegalArgumentException if any quantity is not convertible to the unit.
+   */
+  public static QuantityArray of(Collection<QuantityValue> values, Unit unit) {
+    double[] unscaled = new double[values.size()];
+    int i = 0;
+    for (QuantityValue qv : values) {
+      checkConvertible(unit, qv.unit);
+      unscaled[i++] = qv.unscaled;
+    }
+    return new QuantityArray(unscaled, unit);
+  }
+
+  /** Creates a copy of any column. */
+  public static QuantityArray copyOf(QuantityColumn column) {
+    double[] unscaled = new double[column.size()];
+    column.copyUnscaled(0, unscaled, 0, unscaled.length);
+    return new QuantityArray(unscaled, column.unit());
+  }
+
+  @Override
+  public Unit unit() {
+    return unit;
+  }
+
+  @Override
+  public int size() {
+    return unscaled.length;
+  }
+
+  @Override
+  public double unscaled(int index) {
+    return unscaled[index];
+  }
+
+  @Override
+  public void copyUnscaled(int index, double[] dst, int dstPos, int length) {
+    System.arraycopy(this.unscaled, index, dst, dstPos, length);
+  }
+
+  /** The backing array of unscaled values. */
+  public double[] unscaledValues() {
+    return unscaled;
+  }
+
+  /** Creates a new array holding every value, scaled to this column's unit. */
+  public double[] values() {
+    double[] values = new double[this.unscaled.length];
+    double m = this.unit.conversionMultiplier();
+    double b = this.unit.conversionOffset();
+    for (int i = 0; i < values.length; i++) {
+      values[i] = this.unscaled[i] / m - b;
+    }
+    return values;
+  }
+
+  /**
+   * Sets the value at the given index from a quantity.
+   *
+   * @throws IllegalArgumentException if the quantity is not convertible to this column's unit.
+   */
+  public void set(int index, QuantityValue value) {
+    checkConvertible(this.unit, value.unit);
+    this.unscaled[index] = value.unscaled;
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation element-wise.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray plus(QuantityColumn other) {
+    return copyOf(this).plusMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray plus(QuantityValue other) {
+    return copyOf(this).plusMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation element-wise.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray minus(QuantityColumn other) {
+    return copyOf(this).minusMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray minus(QuantityValue other) {
+    return copyOf(this).minusMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation element-wise.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray times(QuantityColumn other) {
+    return copyOf(this).timesMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray times(QuantityValue other) {
+    return copyOf(this).timesMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray times(double other) {
+    return copyOf(this).timesMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation element-wise.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray dividedBy(QuantityColumn other) {
+    return copyOf(this).dividedByMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray dividedBy(QuantityValue other) {
+    return copyOf(this).dividedByMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray by applying the specified operation to every element.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray dividedBy(double other) {
+    return copyOf(this).dividedByMut(other);
+  }
+
+  /**
+   * Creates a new QuantityArray equivalent to this, but in the specified unit. Values are stored
+   * unscaled, so this copies them without any arithmetic.
+   *
+   * @return A new QuantityArray.
+   */
+  public QuantityArray inUnit(Unit unit) {
+    checkConvertible(this.unit, unit);
+    return new QuantityArray(this.unscaled.clone(), unit);
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation element-wise.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray plusMut(QuantityColumn other) {
+    checkConvertible(this.unit, other.unit());
+    checkSize(other);
+    if (other instanceof QuantityArray qa) {
+      double[] o = qa.unscaled;
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] += o[i];
+      }
+    } else {
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] += other.unscaled(i);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray plusMut(QuantityValue other) {
+    checkConvertible(this.unit, other.unit);
+    double o = other.unscaled;
+    for (int i = 0; i < this.unscaled.length; i++) {
+      this.unscaled[i] += o;
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation element-wise.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray minusMut(QuantityColumn other) {
+    checkConvertible(this.unit, other.unit());
+    checkSize(other);
+    if (other instanceof QuantityArray qa) {
+      double[] o = qa.unscaled;
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] -= o[i];
+      }
+    } else {
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] -= other.unscaled(i);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray minusMut(QuantityValue other) {
+    checkConvertible(this.unit, other.unit);
+    double o = other.unscaled;
+    for (int i = 0; i < this.unscaled.length; i++) {
+      this.unscaled[i] -= o;
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation element-wise.
+   *
+   * @return This QuantityArray with updated values and unit.
+   */
+  public QuantityArray timesMut(QuantityColumn other) {
+    checkSize(other);
+    if (other instanceof QuantityArray qa) {
+      double[] o = qa.unscaled;
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] *= o[i];
+      }
+    } else {
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] *= other.unscaled(i);
+      }
+    }
+    this.unit = new AggregateUnit(this.unit, 1, other.unit(), 1);
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values and unit.
+   */
+  public QuantityArray timesMut(QuantityValue other) {
+    this.timesMut(other.unscaled);
+    this.unit = new AggregateUnit(this.unit, 1, other.unit, 1);
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray timesMut(double other) {
+    for (int i = 0; i < this.unscaled.length; i++) {
+      this.unscaled[i] *= other;
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation element-wise.
+   *
+   * @return This QuantityArray with updated values and unit.
+   */
+  public QuantityArray dividedByMut(QuantityColumn other) {
+    checkSize(other);
+    if (other instanceof QuantityArray qa) {
+      double[] o = qa.unscaled;
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] /= o[i];
+      }
+    } else {
+      for (int i = 0; i < this.unscaled.length; i++) {
+        this.unscaled[i] /= other.unscaled(i);
+      }
+    }
+    this.unit = new AggregateUnit(this.unit, 1, other.unit(), -1);
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values and unit.
+   */
+  public QuantityArray dividedByMut(QuantityValue other) {
+    this.dividedByMut(other.unscaled);
+    this.unit = new AggregateUnit(this.unit, 1, other.unit, -1);
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by applying the specified operation to every element.
+   *
+   * @return This QuantityArray with updated values.
+   */
+  public QuantityArray dividedByMut(double other) {
+    for (int i = 0; i < this.unscaled.length; i++) {
+      this.unscaled[i] /= other;
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityArray by setting its unit.
+   *
+   * @return This QuantityArray with an updated unit.
+   */
+  public QuantityArray inUnitMut(Unit unit) {
+    checkConvertible(this.unit, unit);
+    this.unit = unit;
+    return this;
+  }
+
+  private void checkSize(QuantityColumn other) {
+    if (other.size() != this.unscaled.length) {
+      throw new IllegalArgumentException(
+          "Column sizes differ: " + this.unscaled.length + " and " + other.size());
+    }
+  }
+
+  static void checkConvertible(Unit unit, Unit other) {
+    if (!unit.isConvertible(other)) {
+      throw new IllegalArgumentException(other + " is not convertible to " + unit);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    QuantityArray that = (QuantityArray) o;
+    return unit.isConvertible(that.unit) && Arrays.equals(unscaled, that.unscaled);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(unscaled) + unit.dv().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.unscaled.length + " values in " + this.unit;
+  }
+}
@@ -0,0 +1,317 @@
+package com.occamsystems.qudt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A column of quantities kept off-heap, in a direct or memory-mapped buffer of little-endian
+ * doubles. Unlike {@link QuantityArray}, values are stored scaled to the buffer's unit, so a file
+ * of raw readings can be mapped and used as-is. Converting to another unit rewrites the values in
+ * place.
+ *
+ * <p>All operations mutate the buffer in place and never copy values onto the heap. Arithmetic has
+ * the same results as the equivalent QuantityValue operations, including for units with offsets.
+ * Operations that combine two columns require them to have the same size.
+ *
+ * <p>A single buffer holds at most {@link #MAX_SIZE} values. Larger files can be processed in
+ * chunks with {@link #forEachMapped}.
+ */
+public class QuantityBuffer implements QuantityColumn {
+
+  /** The largest number of values one buffer can hold. */
+  public static final int MAX_SIZE = Integer.MAX_VALUE / Double.BYTES;
+
+  Unit unit;
+  private final ByteBuffer bytes;
+  private final DoubleBuffer values;
+
+  protected QuantityBuffer(ByteBuffer bytes, Unit unit) {
+    this.bytes = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+    this.values = this.bytes.asDoubleBuffer();
+    this.unit = unit;
+  }
+
+  /** Allocates a direct buffer of the given size in which every value is zero. */
+  public static QuantityBuffer allocate(int size, Unit unit) {
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("Size " + size + " is out of range");
+    }
+
+    return new QuantityBuffer(ByteBuffer.allocateDirect(size * Double.BYTES), unit);
+  }
+
+  /**
+   * Wraps the remaining bytes of a buffer, read as little-endian doubles scaled to the given unit.
+   * The bytes are not copied, and the order of the given buffer is left unchanged.
+   */
+  public static QuantityBuffer wrap(ByteBuffer bytes, Unit unit) {
+    if (bytes.remaining() % Double.BYTES != 0) {
+      throw new IllegalArgumentException(
+          "Buffer holds " + bytes.remaining() + " bytes, which is not a whole number of doubles");
+    }
+
+    return new QuantityBuffer(bytes, unit);
+  }
+
+  /**
+   * Maps size values of a file of little-endian doubles, starting at the given value index. With
+   * {@link MapMode#READ_WRITE}, in-place operations write through to the file.
+   */
+  public static QuantityBuffer map(
+      FileChannel channel, MapMode mode, long index, int size, Unit unit) throws IOException {
+    if (size < 0 || size > MAX_SIZE) {
+      throw new IllegalArgumentException("Size " + size + " is out of range");
+    }
+
+    return new QuantityBuffer(
+        channel.map(mode, index * Double.BYTES, (long) size * Double.BYTES), unit);
+  }
+
+  /**
+   * Maps a file of little-endian doubles chunk by chunk, passing each chunk to the action in order.
+   * Only one chunk is referenced at a time, so files much larger than the heap, or than {@link
+   * #MAX_SIZE} values, can be processed. Trailing bytes that do not make a whole double are
+   * ignored.
+   *
+   * @param chunkSize The most values to map at once.
+   */
+  public static void forEachMapped(
+      Path path, MapMode mode, Unit unit, int chunkSize, Consumer<QuantityBuffer> action)
+      throws IOException {
+    if (chunkSize <= 0 || chunkSize > MAX_SIZE) {
+      throw new IllegalArgumentException("Chunk size " + chunkSize + " is out of range");
+    }
+
+    StandardOpenOption[] options =
+        mode == MapMode.READ_ONLY
+            ? new StandardOpenOption[] {StandardOpenOption.READ}
+            : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+
+    try (FileChannel channel = FileChannel.open(path, options)) {
+      long total = channel.size() / Double.BYTES;
+      for (long index = 0; index < total; index += chunkSize) {
+        int size = (int) Math.min(chunkSize, total - index);
+        action.accept(map(channel, mode, index, size, unit));
+      }
+    }
+  }
+
+  @Override
+  public Unit unit() {
+    return unit;
+  }
+
+  @Override
+  public int size() {
+    return values.capacity();
+  }
+
+  @Override
+  public double unscaled(int index) {
+    return this.unit.unscale(this.values.get(index));
+  }
+
+  @Override
+  public double value(int index) {
+    return this.values.get(index);
+  }
+
+  /** Sets the value at the given index, scaled to this buffer's unit. */
+  public void value(int index, double value) {
+    this.values.put(index, value);
+  }
+
+  /**
+   * Sets the value at the given index from a quantity.
+   *
+   * @throws IllegalArgumentException if the quantity is not convertible to this buffer's unit.
+   */
+  public void set(int index, QuantityValue value) {
+    QuantityArray.checkConvertible(this.unit, value.unit);
+    this.values.put(index, this.unit.scale(value.unscaled));
+  }
+
+  /** A view of the values, scaled to this buffer's unit, sharing this buffer's memory. */
+  public DoubleBuffer values() {
+    return this.values.duplicate();
+  }
+
+  /** Writes changes to a memory-mapped buffer back to its file. Does nothing for other buffers. */
+  public void force() {
+    if (this.bytes instanceof MappedByteBuffer mapped) {
+      mapped.force();
+    }
+  }
+
+  /**
+   * Mutates this QuantityBuffer by converting every value to the specified unit.
+   *
+   * @return This QuantityBuffer with updated values and unit.
+   */
+  public QuantityBuffer inUnitMut(Unit unit) {
+    Converter.of(this.unit, unit).convert(this.values.duplicate(), this.values.duplicate());
+    this.unit = unit;
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation element-wise.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer plusMut(QuantityColumn other) {
+    QuantityArray.checkConvertible(this.unit, other.unit());
+    this.checkSize(other);
+    double m = this.unit.conversionMultiplier();
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, this.values.get(i) + other.unscaled(i) / m);
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer plusMut(QuantityValue other) {
+    QuantityArray.checkConvertible(this.unit, other.unit);
+    double o = other.unscaled / this.unit.conversionMultiplier();
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, this.values.get(i) + o);
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation element-wise.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer minusMut(QuantityColumn other) {
+    QuantityArray.checkConvertible(this.unit, other.unit());
+    this.checkSize(other);
+    double m = this.unit.conversionMultiplier();
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, this.values.get(i) - other.unscaled(i) / m);
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer minusMut(QuantityValue other) {
+    QuantityArray.checkConvertible(this.unit, other.unit);
+    double o = other.unscaled / this.unit.conversionMultiplier();
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, this.values.get(i) - o);
+    }
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation element-wise.
+   *
+   * @return This QuantityBuffer with updated values and unit.
+   */
+  public QuantityBuffer timesMut(QuantityColumn other) {
+    this.checkSize(other);
+    Unit product = new AggregateUnit(this.unit, 1, other.unit(), 1);
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, product.scale(this.unscaled(i) * other.unscaled(i)));
+    }
+    this.unit = product;
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values and unit.
+   */
+  public QuantityBuffer timesMut(QuantityValue other) {
+    this.rescale(other.unscaled, new AggregateUnit(this.unit, 1, other.unit, 1));
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer timesMut(double other) {
+    this.rescale(other, this.unit);
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation element-wise.
+   *
+   * @return This QuantityBuffer with updated values and unit.
+   */
+  public QuantityBuffer dividedByMut(QuantityColumn other) {
+    this.checkSize(other);
+    Unit quotient = new AggregateUnit(this.unit, 1, other.unit(), -1);
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, quotient.scale(this.unscaled(i) / other.unscaled(i)));
+    }
+    this.unit = quotient;
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values and unit.
+   */
+  public QuantityBuffer dividedByMut(QuantityValue other) {
+    this.rescale(1 / other.unscaled, new AggregateUnit(this.unit, 1, other.unit, -1));
+    return this;
+  }
+
+  /**
+   * Mutates this QuantityBuffer by applying the specified operation to every element.
+   *
+   * @return This QuantityBuffer with updated values.
+   */
+  public QuantityBuffer dividedByMut(double other) {
+    this.rescale(1 / other, this.unit);
+    return this;
+  }
+
+  /** Multiplies every unscaled value by factor and stores the results scaled to the new unit. */
+  private void rescale(double factor, Unit unit) {
+    // to.scale(from.unscale(x) * factor), folded into one multiply and add.
+    double m = this.unit.conversionMultiplier() * factor / unit.conversionMultiplier();
+    double b = this.unit.conversionOffset() * m - unit.conversionOffset();
+    for (int i = 0; i < this.size(); i++) {
+      this.values.put(i, this.values.get(i) * m + b);
+    }
+    this.unit = unit;
+  }
+
+  private void checkSize(QuantityColumn other) {
+    if (other.size() != this.size()) {
+      throw new IllegalArgumentException(
+          "Column sizes differ: " + this.size() + " and " + other.size());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.size() + " values in " + this.unit;
+  }
+}
@@ -0,0 +1,78 @@
+package com.occamsystems.qudt;
+
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Collectors over streams of {@link QuantityValue}. These accumulate into primitive {@link
+ * QuantitySummaryStatistics} rather than adding QuantityValues together, so they allocate nothing
+ * per element. They check convertibility once per distinct unit rather than once per element, and
+ * they combine partial results, so they work with parallel streams.
+ *
+ * <p>Collectors that take a unit report their results in it. All of them throw
+ * IllegalArgumentException when they meet a quantity that is not convertible to that unit.
+ */
+public final class QuantityCollectors {
+
+  private QuantityCollectors() {}
+
+  /** Sums quantities, reporting the result in the given unit. */
+  public static Collector<QuantityValue, ?, QuantityValue> summing(Unit unit) {
+    return Collector.of(
+        () -> new QuantitySummaryStatistics(unit),
+        QuantitySummaryStatistics::accept,
+        QuantitySummaryStatistics::combine,
+        QuantitySummaryStatistics::sum);
+  }
+
+  /** Averages quantities, reporting the result in the given unit. Gives zero if there are none. */
+  public static Collector<QuantityValue, ?, QuantityValue> averaging(Unit unit) {
+    return Collector.of(
+        () -> new QuantitySummaryStatistics(unit),
+        QuantitySummaryStatistics::accept,
+        QuantitySummaryStatistics::combine,
+        QuantitySummaryStatistics::average);
+  }
+
+  /** Collects count, sum, minimum, maximum and average in one pass, reported in the given unit. */
+  public static Collector<QuantityValue, ?, QuantitySummaryStatistics> summarizing(Unit unit) {
+    return Collector.of(
+        () -> new QuantitySummaryStatistics(unit),
+        QuantitySummaryStatistics::accept,
+        QuantitySummaryStatistics::combine);
+  }
+
+  /**
+   * Collects count, sum, minimum, maximum and average in one pass, reported in the unit of the
+   * first quantity seen.
+   */
+  public static Collector<QuantityValue, ?, QuantitySummaryStatistics> summarizing() {
+    return Collector.of(
+        QuantitySummaryStatistics::new,
+        QuantitySummaryStatistics::accept,
+        QuantitySummaryStatistics::combine);
+  }
+
+  /**
+   * Groups quantities by their dimension vector and applies a downstream collector to each group.
+   * Quantity kinds that share dimensions, such as energy and torque, end up in the same group: a
+   * unit alone cannot tell them apart, since a unit such as J is listed under several kinds. To
+   * group by something finer, use {@link Collectors#groupingBy} with your own classifier.
+   */
+  public static <A, D> Collector<QuantityValue, ?, Map<DimensionVector, D>> groupingByDimension(
+      Collector<QuantityValue, A, D> downstream) {
+    return Collectors.groupingBy(qv -> qv.unit.dv(), downstream);
+  }
+
+  /**
+   * Groups quantities by their dimension vector, as {@link #groupingByDimension(Collector)}, and
+   * summarizes each group in the unit of the first quantity seen in it.
+   */
+  public static Collector<QuantityValue, ?, Map<DimensionVector, QuantitySummaryStatistics>>
+      groupingByDimension() {
+    return groupingByDimension(summarizing());
+  }
+}
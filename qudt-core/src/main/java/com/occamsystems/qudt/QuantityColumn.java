@@ -0,0 +1,36 @@
+package com.occamsystems.qudt;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A sequence of quantities that share one unit. Columns expose their values unscaled, as {@link
+ * QuantityValue} does, whatever form they store them in.
+ */
+public interface QuantityColumn {
+
+  /** The unit shared by every value in this column. */
+  Unit unit();
+
+  /** The number of values in this column. */
+  int size();
+
+  /** The unscaled value at the given index. */
+  double unscaled(int index);
+
+  /** The value at the given index, scaled to this column's unit. */
+  default double value(int index) {
+    return this.unit().scale(this.unscaled(index));
+  }
+
+  /** Creates a QuantityValue for the value at the given index. */
+  default QuantityValue get(int index) {
+    return QuantityValue.ofUnscaled(this.unscaled(index), this.unit());
+  }
+
+  /** Copies length unscaled values starting at index into dst, starting at dstPos. */
+  default void copyUnscaled(int index, double[] dst, int dstPos, int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = this.unscaled(index + i);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.D1Units;
+import java.util.function.Consumer;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Count, sum, minimum, maximum and average of a set of quantities, collected in one pass. This
+ * is the quantity counterpart of {@link java.util.DoubleSummaryStatistics}, and works the same way
+ * in parallel streams.
+ *
+ * <p>Statistics are kept as unscaled primitives, and results are reported in the unit given at
+ * construction. If no unit is given, the unit of the first quantity accepted is used. Every
+ * quantity must be convertible to that unit. This is checked once for each distinct unit instance,
+ * rather than once per quantity, for up to {@value #CHECKED_UNITS} units at a time. Not
+ * thread-safe.
+ */
+public class QuantitySummaryStatistics implements Consumer<QuantityValue> {
+
+  private static final int CHECKED_UNITS = 8;
+
+  private Unit unit;
+  // Unit instances already known to be convertible to unit, replaced round-robin when full.
+  private final Unit[] checked = new Unit[CHECKED_UNITS];
+  private int nextChecked;
+  private long count;
+  private double sum;
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /** Creates empty statistics that report in the unit of the first quantity accepted. */
+  public QuantitySummaryStatistics() {}
+
+  /** Creates empty statistics that report in the given unit. */
+  public QuantitySummaryStatistics(Unit unit) {
+    this.unit = unit;
+  }
+
+  /**
+   * Records a quantity.
+   *
+   * @throws IllegalArgumentException if the quantity is not convertible to this unit.
+   */
+  @Override
+  public void accept(QuantityValue value) {
+    if (!this.isChecked(value.unit)) {
+      if (this.unit == null) {
+        this.unit = value.unit;
+      } else {
+        QuantityArray.checkConvertible(this.unit, value.unit);
+      }
+      this.checked[this.nextChecked] = value.unit;
+      this.nextChecked = (this.nextChecked + 1) % CHECKED_UNITS;
+    }
+
+    double v = value.unscaled;
+    this.count++;
+    this.sum += v;
+    this.min = Math.min(this.min, v);
+    this.max = Math.max(this.max, v);
+  }
+
+  private boolean isChecked(Unit unit) {
+    for (Unit checked : this.checked) {
+      if (checked == unit) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Combines the state of other statistics into these.
+   *
+   * @throws IllegalArgumentException if the other statistics' unit is not convertible to this unit.
+   */
+  public QuantitySummaryStatistics combine(QuantitySummaryStatistics other) {
+    if (other.count == 0) {
+      return this;
+    }
+
+    if (this.unit == null) {
+      this.unit = other.unit;
+    } else {
+      QuantityArray.checkConvertible(this.unit, other.unit);
+    }
+
+    this.count += other.count;
+    this.sum += other.sum;
+    this.min = Math.min(this.min, other.min);
+    this.max = Math.max(this.max, other.max);
+    return this;
+  }
+
+  /** The unit results are reported in, or {@link D1Units#NUM} if none is known yet. */
+  public Unit unit() {
+    return this.unit == null ? D1Units.NUM.u : this.unit;
+  }
+
+  public long count() {
+    return this.count;
+  }
+
+  /** The sum of all quantities, or zero if there are none. */
+  public QuantityValue sum() {
+    if (this.count == 0) {
+      return QuantityValue.ofScaled(0, this.unit());
+    }
+    return QuantityValue.ofUnscaled(this.sum, this.unit());
+  }
+
+  /** The arithmetic mean of all quantities, or zero if there are none. */
+  public QuantityValue average() {
+    if (this.count == 0) {
+      return QuantityValue.ofScaled(0, this.unit());
+    }
+    return QuantityValue.ofUnscaled(this.sum / this.count, this.unit());
+  }
+
+  /** The smallest quantity, or positive infinity if there are none. */
+  public QuantityValue min() {
+    return QuantityValue.ofUnscaled(this.min, this.unit());
+  }
+
+  /** The largest quantity, or negative infinity if there are none. */
+  public QuantityValue max() {
+    return QuantityValue.ofUnscaled(this.max, this.unit());
+  }
+
+  @Override
+  public String toString() {
+    return "%s{count=%d, sum=%s, min=%s, average=%s, max=%s}"
+        .formatted(
+            this.getClass().getSimpleName(),
+            this.count,
+            this.sum(),
+            this.min(),
+            this.average(),
+            this.max());
+  }
+}
@@ -127,7 +127,7 @@ public class QuantityValue implements Comparable<QuantityValue> {
    * @return A new QuantityValue.
    */
   public QuantityValue toPower(int powNum, int powDenom) {
-    return QuantityValue.pow(this, new SmallFraction(powNum, powDenom));
+    return QuantityValue.pow(this, SmallFraction.of(powNum, powDenom));
   }
 
   /**
@@ -222,7 +222,7 @@ public class QuantityValue implements Comparable<QuantityValue> {
    * @return This QuantityValue with an updated value.
    */
   public QuantityValue toPowerMut(int powNum, int powDenom) {
-    return this.toPowerMut(new SmallFraction(powNum, powDenom));
+    return this.toPowerMut(SmallFraction.of(powNum, powDenom));
   }
 
   /**
@@ -337,7 +337,7 @@ public class QuantityValue implements Comparable<QuantityValue> {
   }
 
   public static QuantityValue pow(QuantityValue qv1, int powNum, int powDenom) {
-    return QuantityValue.pow(qv1, new SmallFraction(powNum, powDenom));
+    return QuantityValue.pow(qv1, SmallFraction.of(powNum, powDenom));
   }
 
   public static QuantityValue multiply(QuantityValue qv1, double d) {
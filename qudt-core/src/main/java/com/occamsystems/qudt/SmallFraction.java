@@ -1,7 +1,8 @@
 package com.occamsystems.qudt;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.text.NumberFormat;
-import java.util.Objects;
 import java.util.logging.Logger;
 
 /**
@@ -10,18 +11,43 @@ import java.util.logging.Logger;
  * <p>This class handles rational numbers with short numerator and denominator values. This is
  * intended to be used by dimension vectors, whose denominators are normally 1, sometimes 2, and may
  * rarely go as high as 4. Similarly, numerators above 16 essentially never happen.
+ *
+ * <p>Fractions are immutable and always reduced. Every fraction with a numerator of at most 16 in
+ * magnitude and a denominator of at most 8 is preallocated, and the static factories and arithmetic
+ * methods return those shared instances rather than allocating. Shared instances also carry a
+ * precomputed decimal string, so formatting them never allocates or locks either.
  */
 public class SmallFraction extends Number {
 
-  public static SmallFraction ZERO = new SmallFraction(0, 1);
-  public static SmallFraction ONE = new SmallFraction(1);
-  public static SmallFraction NEG_ONE = new SmallFraction(-1);
-  private int num;
-  private int denom;
+  private static final int MAX_CACHED_NUM = 16;
+  private static final int MAX_CACHED_DENOM = 8;
+  private static final SmallFraction[] CACHE =
+      new SmallFraction[(2 * MAX_CACHED_NUM + 1) * MAX_CACHED_DENOM];
 
-  private boolean reduced;
+  static {
+    for (int denom = 1; denom <= MAX_CACHED_DENOM; denom++) {
+      for (int num = -MAX_CACHED_NUM; num <= MAX_CACHED_NUM; num++) {
+        if (gcd(Math.abs(num), denom) == 1) {
+          SmallFraction sf = new SmallFraction(num, denom, true);
+          sf.decimal = formatDecimal(num, denom);
+          CACHE[cacheIndex(num, denom)] = sf;
+        }
+      }
+    }
+  }
 
-  public static final NumberFormat NF;
+  public static final SmallFraction ZERO = of(0);
+  public static final SmallFraction ONE = of(1);
+  public static final SmallFraction NEG_ONE = of(-1);
+  private final int num;
+  private final int denom;
+  private String decimal;
+
+  /**
+   * @deprecated NumberFormat is not thread-safe and is locale dependent. {@link #toDecimalString()}
+   *     no longer uses this.
+   */
+  @Deprecated public static final NumberFormat NF;
 
   static {
     NF = NumberFormat.getNumberInstance();
@@ -34,10 +60,62 @@ public class SmallFraction extends Number {
   }
 
   public SmallFraction(int num, int denom) {
+    int gcd = gcd(Math.abs(num), Math.abs(denom));
+    if (gcd > 1) {
+      num /= gcd;
+      denom /= gcd;
+    }
+
+    if (denom < 0) {
+      num = -num;
+      denom = -denom;
+    }
+
+    this.num = num;
+    this.denom = denom;
+  }
+
+  private SmallFraction(int num, int denom, boolean reduced) {
     this.num = num;
     this.denom = denom;
   }
 
+  /** Returns the fraction equal to value, using a shared instance where possible. */
+  public static SmallFraction of(int value) {
+    if (value >= -MAX_CACHED_NUM && value <= MAX_CACHED_NUM) {
+      return CACHE[cacheIndex(value, 1)];
+    }
+
+    return new SmallFraction(value, 1, true);
+  }
+
+  /** Returns the fraction equal to num/denom, using a shared instance where possible. */
+  public static SmallFraction of(int num, int denom) {
+    int gcd = gcd(Math.abs(num), Math.abs(denom));
+    if (gcd > 1) {
+      num /= gcd;
+      denom /= gcd;
+    }
+
+    if (denom < 0) {
+      num = -num;
+      denom = -denom;
+    }
+
+    if (denom >= 1
+        && denom <= MAX_CACHED_DENOM
+        && num >= -MAX_CACHED_NUM
+        && num <= MAX_CACHED_NUM) {
+      return CACHE[cacheIndex(num, denom)];
+    }
+
+    return new SmallFraction(num, denom, true);
+  }
+
+  private static int cacheIndex(int num, int denom) {
+    return (num + MAX_CACHED_NUM) * MAX_CACHED_DENOM + denom - 1;
+  }
+
   /**
    * Rounds the value to a small fraction if it is approximately equal to such a value. Denominators
    * of approximate fractions will always be 8 or less. If no nearby small fraction is found, the
@@ -47,11 +125,21 @@ public class SmallFraction extends Number {
     for (int i = 1; i < 9; i++) {
       double vi = val * i;
       if (Math.abs(vi - Math.round(vi)) < 0.01) {
-        return new SmallFraction((int) Math.round(vi), i);
+        return of((int) Math.round(vi), i);
       }
     }
 
-    return new SmallFraction((int) Math.round(val));
+    return of((int) Math.round(val));
+  }
+
+  /** Returns the numerator of this fraction. */
+  public int numerator() {
+    return this.num;
+  }
+
+  /** Returns the denominator of this fraction. The result is always positive. */
+  public int denominator() {
+    return this.denom;
   }
 
   public int intValue() {
@@ -71,26 +159,11 @@ public class SmallFraction extends Number {
   }
 
   /**
-   * Reduces this fraction, then returns itself.
+   * Fractions are always reduced on construction, so this simply returns this fraction.
    *
    * @return This fraction, reduced.
    */
   public SmallFraction reduce() {
-    if (this.reduced) {
-      return this;
-    }
-
-    int gcd = gcd(Math.abs(this.num), Math.abs(this.denom));
-    this.num = this.num / gcd;
-    this.denom = this.denom / gcd;
-
-    if (this.denom < 0) {
-      this.num *= -1;
-      this.denom *= -1;
-    }
-
-    this.reduced = true;
-
     return this;
   }
 
@@ -100,42 +173,42 @@ public class SmallFraction extends Number {
 
   public static SmallFraction plus(SmallFraction f1, int f2) {
     if (f1.denom == 1) {
-      return new SmallFraction(f1.num + f2);
+      return of(f1.num + f2);
     } else {
-      return new SmallFraction(f1.num + f2 * f1.denom, f1.denom);
+      return of(f1.num + f2 * f1.denom, f1.denom);
     }
   }
 
   public static SmallFraction plus(SmallFraction f1, SmallFraction f2) {
     if (f1.denom == f2.denom) {
-      return new SmallFraction(f1.num + f2.num, f1.denom);
+      return of(f1.num + f2.num, f1.denom);
     } else {
-      return new SmallFraction(f1.num * f2.denom + f2.num * f1.denom, f1.denom * f2.denom);
+      return of(f1.num * f2.denom + f2.num * f1.denom, f1.denom * f2.denom);
     }
   }
 
   public static SmallFraction minus(SmallFraction f1, SmallFraction f2) {
     if (f1.denom == f2.denom) {
-      return new SmallFraction(f1.num - f2.num, f1.denom);
+      return of(f1.num - f2.num, f1.denom);
     } else {
-      return new SmallFraction(f1.num * f2.denom - f2.num * f1.denom, f1.denom * f2.denom);
+      return of(f1.num * f2.denom - f2.num * f1.denom, f1.denom * f2.denom);
     }
   }
 
   public static SmallFraction times(SmallFraction f, SmallFraction mult) {
-    return new SmallFraction(f.num * mult.num, f.denom * mult.denom);
+    return of(f.num * mult.num, f.denom * mult.denom);
   }
 
   public static SmallFraction divided(SmallFraction f, SmallFraction div) {
-    return new SmallFraction(f.num * div.denom, f.denom * div.num);
+    return of(f.num * div.denom, f.denom * div.num);
   }
 
   public static SmallFraction times(SmallFraction f, int mult) {
-    return new SmallFraction(f.num * mult, f.denom);
+    return of(f.num * mult, f.denom);
   }
 
   public static SmallFraction divided(SmallFraction f, int div) {
-    return new SmallFraction(f.num, f.denom * div);
+    return of(f.num, f.denom * div);
   }
 
   @Override
@@ -144,8 +217,6 @@ public class SmallFraction extends Number {
       return true;
     }
     if (o instanceof SmallFraction osf) {
-      this.reduce();
-      osf.reduce();
       return this.num == osf.num && this.denom == osf.denom;
     }
 
@@ -154,13 +225,11 @@ public class SmallFraction extends Number {
 
   @Override
   public int hashCode() {
-    this.reduce();
-    return Objects.hash(this.num, this.denom);
+    return 31 * this.num + this.denom;
   }
 
   @Override
   public String toString() {
-    this.reduce();
     if (denom == 1) {
       return String.valueOf(num);
     }
@@ -168,8 +237,34 @@ public class SmallFraction extends Number {
     return num + "/" + denom;
   }
 
+  /**
+   * Formats this fraction as a decimal with at most three fraction digits, rounded half-even. The
+   * result is independent of the default locale: the decimal separator is always a period and
+   * digits are never grouped, so "2500.5" rather than "2.500,5" or "2,500.5". Dimension vector
+   * names and URIs are built from it, so they must not change with the locale. This is safe to call
+   * from any number of threads.
+   */
   public String toDecimalString() {
-    return NF.format(this.floatValue());
+    String decimal = this.decimal;
+    if (decimal == null) {
+      decimal = formatDecimal(this.num, this.denom);
+      this.decimal = decimal;
+    }
+    return decimal;
+  }
+
+  private static String formatDecimal(int num, int denom) {
+    if (denom == 1) {
+      return String.valueOf(num);
+    }
+
+    if (denom == 0) {
+      return String.valueOf(((float) num) / denom);
+    }
+
+    BigDecimal rounded =
+        BigDecimal.valueOf(num).divide(BigDecimal.valueOf(denom), 3, RoundingMode.HALF_EVEN);
+    return rounded.signum() == 0 ? "0" : rounded.stripTrailingZeros().toPlainString();
   }
 
   public boolean isZero() {
@@ -181,7 +276,6 @@ public class SmallFraction extends Number {
   }
 
   public String encodeReduced() {
-    this.reduce();
     int i = Math.abs(num) + 8 * denom + (this.num < 0 ? 128 : 0);
 
     if (i > 255) {
@@ -0,0 +1,126 @@
+package com.occamsystems.qudt;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>An immutable trie from unit symbols to units, for resolving unit tokens directly within a
+ * CharSequence. Prefixed symbols such as "kmol" or "MPa" are symbols in their own right, so they
+ * resolve in a single walk.
+ *
+ * <p>Nodes are stored in flat arrays, with each node's children sorted by character. A node only
+ * keeps the position of its symbol, and the unit is looked up from that when the symbol is hit, so
+ * units need not be loaded to build the trie. Instances are safe to share between threads as long
+ * as the unit lookup is.
+ */
+final class SymbolTrie {
+
+  private final char[][] labels;
+  private final int[][] children;
+  private final int[] symbols;
+  private final IntFunction<LiteralUnit> units;
+
+  private SymbolTrie(
+      char[][] labels, int[][] children, int[] symbols, IntFunction<LiteralUnit> units) {
+    this.labels = labels;
+    this.children = children;
+    this.symbols = symbols;
+    this.units = units;
+  }
+
+  /**
+   * Builds a trie over the symbols, where the unit of {@code symbols[i]} is {@code units.apply(i)}.
+   */
+  static SymbolTrie of(String[] symbols, IntFunction<LiteralUnit> units) {
+    Node root = new Node();
+    for (int s = 0; s < symbols.length; s++) {
+      Node node = root;
+      for (int i = 0; i < symbols[s].length(); i++) {
+        node = node.children.computeIfAbsent(symbols[s].charAt(i), k -> new Node());
+      }
+      node.symbol = s;
+    }
+
+    List<Node> nodes = new ArrayList<>();
+    Queue<Node> queue = new ArrayDeque<>();
+    queue.add(root);
+    while (!queue.isEmpty()) {
+      Node node = queue.remove();
+      node.index = nodes.size();
+      nodes.add(node);
+      queue.addAll(node.children.values());
+    }
+
+    char[][] labels = new char[nodes.size()][];
+    int[][] children = new int[nodes.size()][];
+    int[] nodeSymbols = new int[nodes.size()];
+    for (Node node : nodes) {
+      int n = node.children.size();
+      labels[node.index] = new char[n];
+      children[node.index] = new int[n];
+      int i = 0;
+      for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+        labels[node.index][i] = child.getKey();
+        children[node.index][i++] = child.getValue().index;
+      }
+      nodeSymbols[node.index] = node.symbol;
+    }
+
+    return new SymbolTrie(labels, children, nodeSymbols, units);
+  }
+
+  /** Returns a trie over the same symbols that looks their units up with {@code units}. */
+  SymbolTrie withUnits(IntFunction<LiteralUnit> units) {
+    return new SymbolTrie(this.labels, this.children, this.symbols, units);
+  }
+
+  /** Returns the unit whose symbol is exactly {@code s[start, end)}, or null if there is none. */
+  LiteralUnit get(CharSequence s, int start, int end) {
+    int node = 0;
+    for (int i = start; i < end && node >= 0; i++) {
+      node = this.child(node, s.charAt(i));
+    }
+    return node >= 0 && this.symbols[node] >= 0 ? this.units.apply(this.symbols[node]) : null;
+  }
+
+  /** The number of symbols in this trie. */
+  int size() {
+    int size = 0;
+    for (int symbol : this.symbols) {
+      if (symbol >= 0) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  private int child(int node, char c) {
+    char[] label = this.labels[node];
+    int lo = 0;
+    int hi = label.length - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (label[mid] < c) {
+        lo = mid + 1;
+      } else if (label[mid] > c) {
+        hi = mid - 1;
+      } else {
+        return this.children[node][mid];
+      }
+    }
+    return -1;
+  }
+
+  private static final class Node {
+    private final Map<Character, Node> children = new TreeMap<>();
+    private int symbol = -1;
+    private int index;
+  }
+}
@@ -49,9 +49,24 @@ public abstract class Unit {
     return Objects.hash(symbol(), dv(), conversionMultiplier(), conversionOffset());
   }
 
+  /**
+   * Units of the same class are equal when their symbols, dimension vectors and conversions match.
+   * Subclasses may narrow this further.
+   */
   @Override
   public boolean equals(Object obj) {
-    return obj instanceof Unit && obj.hashCode() == this.hashCode();
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || obj.getClass() != this.getClass()) {
+      return false;
+    }
+
+    Unit other = (Unit) obj;
+    return Objects.equals(this.symbol(), other.symbol())
+        && this.dv().equivalent(other.dv())
+        && Double.compare(this.conversionMultiplier(), other.conversionMultiplier()) == 0
+        && Double.compare(this.conversionOffset(), other.conversionOffset()) == 0;
   }
 
   @Override
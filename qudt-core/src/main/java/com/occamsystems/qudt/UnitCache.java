@@ -0,0 +1,100 @@
+package com.occamsystems.qudt;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>A bounded, thread-safe cache from unit strings to the units they resolve to. {@link UnitIndex}
+ * uses one to avoid parsing the same symbol again, whether it resolved to a literal or an aggregate
+ * unit.
+ *
+ * <p>Lookups never lock, so many threads can read the cache at once. Only adding a new entry takes
+ * a lock, to record it for eviction and to evict another entry when the cache is full, chosen by
+ * the cache's {@link Policy}. Hits, misses and evictions are counted for monitoring. A cache with a
+ * maximum size of zero stores nothing and counts every lookup as a miss.
+ */
+public class UnitCache {
+
+  /** How a full cache chooses the entry to evict. */
+  public enum Policy {
+    /**
+     * Evict an entry that has not been looked up recently, approximating least recently used with
+     * the clock algorithm: entries are considered oldest first, and an entry looked up since it was
+     * last considered gets a second chance. Suits skewed workloads.
+     */
+    LRU,
+    /** Evict the entry that was added first, regardless of use. Lookups write nothing at all. */
+    FIFO
+  }
+
+  public static final int DEFAULT_MAX_SIZE = 4096;
+
+  private final BoundedCache<String, Unit> entries;
+
+  /** Creates an LRU cache of {@link #DEFAULT_MAX_SIZE} entries. */
+  public UnitCache() {
+    this(DEFAULT_MAX_SIZE, Policy.LRU);
+  }
+
+  public UnitCache(int maxSize, Policy policy) {
+    this.entries = new BoundedCache<>(maxSize, policy);
+  }
+
+  /** Returns the unit cached for the symbol, or null if there is none. */
+  public Unit get(String symbol) {
+    return this.entries.get(symbol);
+  }
+
+  /** Caches the unit for the symbol, evicting another entry if the cache is full. */
+  public void put(String symbol, Unit unit) {
+    this.entries.put(symbol, unit);
+  }
+
+  /** Removes every entry. Counters are not reset. */
+  public void clear() {
+    this.entries.clear();
+  }
+
+  public int size() {
+    return this.entries.size();
+  }
+
+  public int maxSize() {
+    return this.entries.maxSize();
+  }
+
+  public Policy policy() {
+    return this.entries.policy();
+  }
+
+  public long hits() {
+    return this.entries.hits();
+  }
+
+  public long misses() {
+    return this.entries.misses();
+  }
+
+  public long evictions() {
+    return this.entries.evictions();
+  }
+
+  /** The fraction of lookups that were hits, or zero if there have been none. */
+  public double hitRate() {
+    long hits = this.hits();
+    long total = hits + this.misses();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  @Override
+  public String toString() {
+    return "%s{policy=%s, size=%d/%d, hits=%d, misses=%d, evictions=%d}"
+        .formatted(
+            this.getClass().getSimpleName(),
+            this.policy(),
+            this.size(),
+            this.maxSize(),
+            this.hits(),
+            this.misses(),
+            this.evictions());
+  }
+}
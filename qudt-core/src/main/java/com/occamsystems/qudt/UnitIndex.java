@@ -1,26 +1,33 @@
 package com.occamsystems.qudt;
 
 import com.occamsystems.qudt.predefined.QuantityKinds;
+import com.occamsystems.qudt.predefined.SymbolIndex;
 import com.occamsystems.qudt.predefined.Units;
 import com.occamsystems.qudt.predefined.units.D1Units;
 import com.occamsystems.qudt.predefined.units.H1Units;
 import com.occamsystems.qudt.predefined.units.L3Units;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,21 +38,30 @@ public class UnitIndex {
   public static final Predicate<String> TEST_COMPOSITE =
       Pattern.compile(".*[0-9\\*/].*").asMatchPredicate();
   public static final Logger log = Logger.getLogger(UnitIndex.class.getName());
-  private List<LiteralUnit> simpleUnits = null;
-  private Map<String, LiteralUnit> simpleSymbolMap = null;
-  private final Map<String, Queue<LiteralUnit>> symbolMap = new ConcurrentHashMap<>();
-  private Map<DimensionVector, List<QuantityKind>> qkByDv;
-  private final Map<String, Collection<LiteralUnit>> runtimeUnits = new ConcurrentHashMap<>();
 
-  private static final String SIMPLE_NUMBER_REGEX = "[-+]?[\\d,]*(\\.\\d+)?";
-  private static final String NUMBER_REGEX = SIMPLE_NUMBER_REGEX + "([eE][-+]?\\d+)?";
-  private static final String UNIT_REGEX =
-      "(?<name>([^-+.\\d]+))(?<exponent>(" + SIMPLE_NUMBER_REGEX + "))?";
-  private static final Pattern UNIT_PATTERN = Pattern.compile(UNIT_REGEX);
-
-  private static final String QTY_REGEX = "(?<value>(" + NUMBER_REGEX + "))( )*(?<unit>(.*))";
-
-  private static final Pattern QTY_PATTERN = Pattern.compile(QTY_REGEX);
+  /** The default for {@link #retainRuntimeUnits(int)}. */
+  public static final int DEFAULT_MAX_RUNTIME_UNITS = 1 << 16;
+
+  /** The number of converters kept for reuse by {@link #converter(Unit, Unit)}. */
+  public static final int DEFAULT_MAX_CONVERTERS = 4096;
+
+  private volatile List<LiteralUnit> simpleUnits = null;
+  private volatile SimpleSymbols simpleSymbols = null;
+  private final Map<String, List<LiteralUnit>> symbolMap = new ConcurrentHashMap<>();
+  private volatile Map<DimensionVector, List<QuantityKind>> qkByDv;
+  private final Map<String, List<LiteralUnit>> runtimeUnits = new ConcurrentHashMap<>();
+  private final BoundedCache<Conversion, Converter> converters =
+      new BoundedCache<>(DEFAULT_MAX_CONVERTERS, UnitCache.Policy.LRU);
+  private volatile UnitCache symbolCache = new UnitCache();
+  // Registering and forgetting runtime units, and these two, are guarded by the lock on registered.
+  private final Set<LiteralUnit> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Queue<LiteralUnit> registrations = new ArrayDeque<>();
+  private final LongAdder runtimeUnitEvictions = new LongAdder();
+  private volatile int maxRuntimeUnits = DEFAULT_MAX_RUNTIME_UNITS;
+
+  private static final LiteralUnit[] NO_UNITS = new LiteralUnit[0];
+  private static final List<LiteralUnit> DEFAULT_PREFERRED_UNITS =
+      List.of(D1Units.UNITLESS.u, H1Units.K.u, L3Units.L.u);
 
   private final Map<DimensionVector, List<LiteralUnit>> preferredUnits = new ConcurrentHashMap<>(3);
 
@@ -56,9 +72,9 @@ public class UnitIndex {
    *     case of ambiguity.
    */
   public UnitIndex(LiteralUnit... preferredUnits) {
-    this.preferUnit(D1Units.UNITLESS.u);
-    this.preferUnit(H1Units.K.u);
-    this.preferUnit(L3Units.L.u);
+    for (LiteralUnit unit : DEFAULT_PREFERRED_UNITS) {
+      this.preferUnit(unit);
+    }
 
     for (int i = 0; i < preferredUnits.length; i++) {
       preferUnit(preferredUnits[i]);
@@ -69,6 +85,22 @@ public class UnitIndex {
     assert unit != null;
 
     this.preferredUnits.computeIfAbsent(unit.dv(), k -> new ArrayList<>(2)).add(unit);
+    this.symbolCache.clear();
+  }
+
+  /** The cache of resolved unit strings used by {@link #exactMatch(String)}. */
+  public UnitCache symbolCache() {
+    return this.symbolCache;
+  }
+
+  /**
+   * Replaces the cache of resolved unit strings, for example to change its size or eviction policy.
+   * A cache with a maximum size of zero turns caching off.
+   */
+  public void useSymbolCache(UnitCache cache) {
+    assert cache != null;
+
+    this.symbolCache = cache;
   }
 
   /**
@@ -76,6 +108,7 @@ public class UnitIndex {
    * example, N and km are simple units, while m/s and m2 are not.
    */
   List<LiteralUnit> simpleUnits() {
+    List<LiteralUnit> simpleUnits = this.simpleUnits;
     if (simpleUnits == null) {
       simpleUnits =
           Units.byDV.values().stream()
@@ -83,91 +116,193 @@ public class UnitIndex {
               .filter(unit -> !TEST_COMPOSITE.test(toKeyboardChars(unit.symbol())))
               .filter(unit -> !(unit.dv().isEmpty() && unit.conversionMultiplier() == 1.))
               .toList();
+      this.simpleUnits = simpleUnits;
     }
 
     return simpleUnits;
   }
 
+  /**
+   * Returns an unmodifiable map from the keyboard symbols of simple units to the units. Where
+   * several units share a symbol, preferred units win, then units whose dimension vector has more
+   * quantity kinds, then the unit with the lowest URI. The generated {@link SymbolIndex} already
+   * resolves collisions, so only preferences are applied here, and indexes whose preferences change
+   * nothing share a single map. Units are looked up as their symbols are, so getting a symbol loads
+   * only the enums of its units, while iterating the map loads every one. The map is safe to use
+   * from several threads.
+   */
   public Map<String, LiteralUnit> simpleSymbolMap() {
-    if (this.simpleSymbolMap == null) {
-      List<LiteralUnit> simpleUnits = this.simpleUnits();
-      this.simpleSymbolMap = new HashMap<>(simpleUnits.size());
-      for (LiteralUnit simpleUnit : simpleUnits) {
-        String key = toKeyboardChars(simpleUnit.symbol());
-        if (simpleSymbolMap.containsKey(key)) {
-          LiteralUnit prev = simpleSymbolMap.get(key);
-
-          if (!prev.equivalent(simpleUnit)) {
-            boolean prefSu = false;
-            boolean prefPrev = false;
-
-            if (this.preferredUnits.containsKey(simpleUnit.dv())) {
-              prefSu = this.preferredUnits.get(simpleUnit.dv()).contains(simpleUnit);
-            }
-            if (this.preferredUnits.containsKey(prev.dv())) {
-              prefPrev = this.preferredUnits.get(prev.dv()).contains(prev);
+    SimpleSymbols simpleSymbols = this.simpleSymbols;
+    return simpleSymbols != null ? simpleSymbols : this.buildSimpleSymbols();
+  }
+
+  /** Returns a trie over {@link #simpleSymbolMap()}, for resolving unit tokens in place. */
+  SymbolTrie simpleSymbolTrie() {
+    SimpleSymbols simpleSymbols = this.simpleSymbols;
+    return (simpleSymbols != null ? simpleSymbols : this.buildSimpleSymbols()).trie;
+  }
+
+  private synchronized SimpleSymbols buildSimpleSymbols() {
+    if (this.simpleSymbols == null) {
+      List<LiteralUnit> preferred = new ArrayList<>();
+      this.preferredUnits.values().forEach(preferred::addAll);
+      Map<String, LiteralUnit> overrides = preferredSymbols(preferred, this::isPreferred);
+
+      Map<String, LiteralUnit> defaults = DefaultSymbols.MAP.overrides;
+      boolean same = overrides.size() == defaults.size();
+      for (Map.Entry<String, LiteralUnit> e : overrides.entrySet()) {
+        same &= e.getValue() == defaults.get(e.getKey());
+      }
+      this.simpleSymbols = same ? DefaultSymbols.MAP : new SimpleSymbols(overrides);
+    }
+
+    return this.simpleSymbols;
+  }
+
+  /**
+   * Resolves the contested symbols of the preferred units to the first preferred unit among those
+   * sharing each symbol, where that differs from the unit {@link SymbolIndex} lists first. A unit
+   * can only be preferred over another with the same symbol, so the candidates of other symbols are
+   * not loaded.
+   */
+  private static Map<String, LiteralUnit> preferredSymbols(
+      Collection<LiteralUnit> preferredUnits, Predicate<LiteralUnit> preferred) {
+    Map<String, LiteralUnit> resolved = new HashMap<>();
+    for (LiteralUnit unit : preferredUnits) {
+      String symbol = toKeyboardChars(unit.symbol());
+      if (SymbolIndex.isContested(symbol) && !resolved.containsKey(symbol)) {
+        LiteralUnit[] candidates = SymbolIndex.candidates(symbol);
+        LiteralUnit winner = resolveCollision(symbol, candidates, preferred);
+        if (winner != candidates[0]) {
+          resolved.put(symbol, winner);
+        }
+      }
+    }
+    return resolved;
+  }
+
+  /**
+   * Picks the first preferred unit among those sharing a symbol, or the first of them if none is
+   * preferred. {@link SymbolIndex} lists them in order of quantity kinds and URI.
+   */
+  private static LiteralUnit resolveCollision(
+      String symbol, LiteralUnit[] candidates, Predicate<LiteralUnit> preferred) {
+    for (LiteralUnit candidate : candidates) {
+      if (preferred.test(candidate)) {
+        log.fine(
+            "Explicitly resolve symbol collision on " + symbol + " = <" + candidate.label() + ">");
+        return candidate;
+      }
+    }
+
+    return candidates[0];
+  }
+
+  private boolean isPreferred(Unit unit) {
+    List<LiteralUnit> preferred = this.preferredUnits.get(unit.dv());
+    return preferred != null && preferred.contains(unit);
+  }
+
+  /**
+   * The simple symbol map of an index: the symbols of {@link SymbolIndex}, each with the unit it
+   * lists first unless a preferred unit overrides it.
+   */
+  private static final class SimpleSymbols extends AbstractMap<String, LiteralUnit> {
+    private final Map<String, LiteralUnit> overrides;
+    private final SymbolTrie trie;
+
+    private SimpleSymbols(Map<String, LiteralUnit> overrides) {
+      this.overrides = overrides;
+      this.trie = DefaultSymbols.TRIE.withUnits(this::unit);
+    }
+
+    private LiteralUnit unit(int i) {
+      if (!this.overrides.isEmpty()) {
+        LiteralUnit unit = this.overrides.get(SymbolIndex.symbol(i));
+        if (unit != null) {
+          return unit;
+        }
+      }
+      return SymbolIndex.unit(i);
+    }
+
+    @Override
+    public LiteralUnit get(Object key) {
+      int i = key instanceof String symbol ? SymbolIndex.indexOf(symbol) : -1;
+      return i >= 0 ? this.unit(i) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String symbol && SymbolIndex.indexOf(symbol) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return SymbolIndex.size();
+    }
+
+    @Override
+    public Set<Entry<String, LiteralUnit>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, LiteralUnit>> iterator() {
+          return new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+              return this.i < SymbolIndex.size();
             }
 
-            int suQk =
-                kindsByDimensionVector()
-                    .getOrDefault(simpleUnit.dv(), Collections.emptyList())
-                    .size();
-            int pQk =
-                kindsByDimensionVector().getOrDefault(prev.dv(), Collections.emptyList()).size();
-
-            if (prefSu && !prefPrev) {
-              log.fine(
-                  "Explicitly resolve symbol collision on "
-                      + key
-                      + " = "
-                      + prev.label()
-                      + " and <"
-                      + simpleUnit.label()
-                      + ">");
-              simpleSymbolMap.put(key, simpleUnit);
-            } else if (!prefSu && prefPrev) {
-              log.fine(
-                  "Explicitly resolve symbol collision on "
-                      + key
-                      + " = <"
-                      + prev.label()
-                      + "> and "
-                      + simpleUnit.label());
-            } else if (suQk > pQk) {
-              log.fine(
-                  "Automatically resolve symbol collision on "
-                      + key
-                      + " = "
-                      + prev.label()
-                      + " and <"
-                      + simpleUnit.label()
-                      + ">");
-              simpleSymbolMap.put(key, simpleUnit);
-            } else {
-              log.fine(
-                  "Automatically resolve symbol collision on "
-                      + key
-                      + " = <"
-                      + prev.label()
-                      + "> and "
-                      + simpleUnit.label());
+            @Override
+            public Entry<String, LiteralUnit> next() {
+              if (!this.hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int symbol = this.i++;
+              return new SimpleImmutableEntry<>(SymbolIndex.symbol(symbol), unit(symbol));
             }
-          }
-        } else {
-          simpleSymbolMap.put(key, simpleUnit);
+          };
         }
-      }
+
+        @Override
+        public int size() {
+          return SymbolIndex.size();
+        }
+      };
     }
+  }
+
+  /**
+   * The trie over the symbols of {@link SymbolIndex}, and the simple symbol map of indexes that
+   * prefer only the default units.
+   */
+  private static final class DefaultSymbols {
+    private static final SymbolTrie TRIE;
+    private static final SimpleSymbols MAP;
+
+    static {
+      String[] symbols = new String[SymbolIndex.size()];
+      for (int i = 0; i < symbols.length; i++) {
+        symbols[i] = SymbolIndex.symbol(i);
+      }
 
-    return this.simpleSymbolMap;
+      TRIE = SymbolTrie.of(symbols, SymbolIndex::unit);
+      MAP =
+          new SimpleSymbols(
+              preferredSymbols(DEFAULT_PREFERRED_UNITS, DEFAULT_PREFERRED_UNITS::contains));
+    }
   }
 
   public Map<DimensionVector, List<QuantityKind>> kindsByDimensionVector() {
+    Map<DimensionVector, List<QuantityKind>> qkByDv = this.qkByDv;
     if (qkByDv == null) {
       qkByDv =
           Arrays.stream(QuantityKinds.values())
               .map(qke -> qke.qk)
               .collect(Collectors.groupingBy(qk -> qk.dimensionVector));
+      this.qkByDv = qkByDv;
     }
 
     return qkByDv;
@@ -231,16 +366,29 @@ public class UnitIndex {
 
   /**
    * Finds a unit whose definition exactly matches the provided symbol. This does not necessarily
-   * mean that symbol of the returned unit will be exactly the provided symbol.
+   * mean that symbol of the returned unit will be exactly the provided symbol. Results are kept in
+   * the {@link #symbolCache()}.
    */
   public Unit exactMatch(String symbol) {
+    UnitCache cache = this.symbolCache;
+    Unit unit = cache.get(symbol);
+    if (unit == null) {
+      unit = this.resolve(symbol);
+      cache.put(symbol, unit);
+    }
+
+    return unit;
+  }
+
+  private Unit resolve(String symbol) {
     String keys = toKeyboardChars(symbol);
 
-    if (this.symbolMap.containsKey(keys)) {
-      return this.symbolMap.get(keys).peek();
+    List<LiteralUnit> known = this.symbolMap.get(keys);
+    if (known != null) {
+      return known.get(0);
     }
 
-    AggregateUnit aggregateUnit = parseAsAggregateUnit(symbol);
+    AggregateUnit aggregateUnit = new UnitParser(keys).parse();
     Optional<LiteralUnit> literalUnit = exactMatch(aggregateUnit);
 
     if (literalUnit.isPresent()) {
@@ -265,31 +413,55 @@ public class UnitIndex {
       return Optional.of(agg.trivialToLiteral());
     }
 
-    if (this.preferredUnits.containsKey(base.dv())) {
-      Optional<LiteralUnit> preferredMatch =
-          exactMatch(base, this.preferredUnits.get(base.dv()).stream());
-      if (preferredMatch.isPresent()) {
-        return preferredMatch;
+    List<LiteralUnit> preferred = this.preferredUnits.get(base.dv());
+    if (preferred != null) {
+      LiteralUnit best = null;
+      for (LiteralUnit candidate : preferred) {
+        best = this.betterMatch(base, best, candidate);
+      }
+      if (best != null) {
+        return Optional.of(best);
       }
     }
 
-    LiteralUnit[] matches = Units.byDV.getOrDefault(base.dv().indexCode(), new LiteralUnit[] {});
-    Collection<LiteralUnit> runtimeMatches =
-        this.runtimeUnits.getOrDefault(base.dv().indexCode(), Collections.emptyList());
+    String code = base.dv().indexCode();
+    LiteralUnit best = null;
+    for (LiteralUnit candidate : Units.byDV.getOrDefault(code, NO_UNITS)) {
+      best = this.betterMatch(base, best, candidate);
+    }
+    for (LiteralUnit candidate : this.runtimeUnits.getOrDefault(code, Collections.emptyList())) {
+      best = this.betterMatch(base, best, candidate);
+    }
 
-    return exactMatch(base, Stream.concat(Arrays.stream(matches), runtimeMatches.stream()));
+    return Optional.ofNullable(best);
   }
 
-  private Optional<LiteralUnit> exactMatch(Unit base, Stream<LiteralUnit> candidates) {
-    double cm = base.conversionMultiplier();
-    double co = base.conversionOffset();
+  /**
+   * Returns the better exact match for base of best so far, which may be null, and the candidate.
+   * Candidates must convert exactly as base does. Shorter symbols win, then symbols closer to that
+   * of base, then the lower symbol. The symbol of base is only needed to break ties on length,
+   * which spares building it for most aggregates.
+   */
+  private LiteralUnit betterMatch(Unit base, LiteralUnit best, LiteralUnit candidate) {
+    if (candidate.conversionMultiplier() != base.conversionMultiplier()
+        || candidate.conversionOffset() != base.conversionOffset()) {
+      return best;
+    }
+    if (best == null || best == candidate) {
+      // Predefined units found before are also registered, so they come up twice.
+      return candidate;
+    }
 
-    return candidates
-        .filter(u -> cm == u.conversionMultiplier() && co == u.conversionOffset())
-        .min(
-            Comparator.comparing(u -> ((Unit) u).symbol().length())
-                .thenComparing(u -> symbolicDifference(base, (Unit) u))
-                .thenComparing(u -> ((Unit) u).symbol()));
+    int c = Integer.compare(candidate.symbol().length(), best.symbol().length());
+    if (c == 0) {
+      c =
+          Integer.compare(
+              this.symbolicDifference(base, candidate), this.symbolicDifference(base, best));
+    }
+    if (c == 0) {
+      c = candidate.symbol().compareTo(best.symbol());
+    }
+    return c < 0 ? candidate : best;
   }
 
   private int symbolicDifference(Unit base, Unit other) {
@@ -340,9 +512,10 @@ public class UnitIndex {
       return lu;
     }
 
-    LiteralUnit[] matches = Units.byDV.getOrDefault(base.dv().indexCode(), new LiteralUnit[] {});
+    String code = base.dv().indexCode();
+    LiteralUnit[] matches = Units.byDV.getOrDefault(code, NO_UNITS);
     Collection<LiteralUnit> runtimeMatches =
-        this.runtimeUnits.getOrDefault(base.dv().indexCode(), Collections.emptyList());
+        this.runtimeUnits.getOrDefault(code, Collections.emptyList());
 
     double baseConvLog = Math.log(base.conversionMultiplier());
     return Stream.concat(Arrays.stream(matches), runtimeMatches.stream())
@@ -354,6 +527,14 @@ public class UnitIndex {
   }
 
   public static String toKeyboardChars(String symbol) {
+    int i = 0;
+    while (i < symbol.length() && symbol.charAt(i) < 128) {
+      i++;
+    }
+    if (i == symbol.length()) {
+      return symbol;
+    }
+
     return symbol
         .chars()
         .mapToObj(
@@ -442,133 +623,506 @@ public class UnitIndex {
     return u1.hashCode() - u2.hashCode();
   }
 
+  /**
+   * Returns a converter from one unit to another. Converters for the {@link #DEFAULT_MAX_CONVERTERS
+   * most recently used} pairs of units are kept and reused, so units parsed from arbitrary strings
+   * are not held on to indefinitely.
+   *
+   * @throws IllegalArgumentException if the units are not convertible.
+   */
+  public Converter converter(Unit from, Unit to) {
+    Conversion conversion = new Conversion(from, to);
+    Converter converter = this.converters.get(conversion);
+    if (converter == null) {
+      converter = Converter.of(from, to);
+      this.converters.put(conversion, converter);
+    }
+    return converter;
+  }
+
+  /** The number of converters currently kept for reuse. */
+  int converterCount() {
+    return this.converters.size();
+  }
+
+  private record Conversion(Unit from, Unit to) {}
+
   public AggregateUnit decomposeAsAggregate(Unit unit) {
     if (unit instanceof LiteralUnit lu) {
       return parseAsAggregateUnit(lu.symbol());
     } else {
       AggregateUnit agg = (AggregateUnit) unit;
-      Map<Unit, SmallFraction> map = new HashMap<>();
-      agg.components.forEach((lu, exp) -> map.put(decomposeAsAggregate(lu), exp));
-      return new AggregateUnit(map);
+      AggregateUnit decomposed = AggregateUnit.empty;
+      for (int i = 0; i < agg.size(); i++) {
+        decomposed =
+            new AggregateUnit(
+                decomposed, SmallFraction.ONE, decomposeAsAggregate(agg.unit(i)), agg.exponent(i));
+      }
+      return decomposed;
     }
   }
 
   public AggregateUnit parseAsAggregateUnit(String symbol) {
-    String s = toKeyboardChars(symbol);
-    return this.parseUnitRecursive(s, new AtomicInteger(0));
-  }
-
-  private AggregateUnit parseUnitRecursive(String s, AtomicInteger i) {
-    boolean negative = false;
-    char[] chars = s.toCharArray();
-    StringBuilder b = new StringBuilder();
-    AggregateUnit aggregateUnit = AggregateUnit.empty;
-    for (int j = i.get(); i.get() < chars.length; j = i.incrementAndGet()) {
-      if (chars[j] == '(') {
-        i.incrementAndGet();
-        AggregateUnit subUnit = parseUnitRecursive(s, i);
-        double exp = 1;
-
-        if (i.get() < chars.length) {
-          StringBuilder subB = new StringBuilder();
-          for (int jj = i.incrementAndGet();
-              i.get() < chars.length && "0123456789+-".contains("" + chars[jj]);
-              jj = i.incrementAndGet()) {
-            subB.append(chars[jj]);
-          }
-          if (i.get() < chars.length) {
-            i.decrementAndGet();
+    return new UnitParser(toKeyboardChars(symbol)).parse();
+  }
+
+  /**
+   * Single-pass scanner over a unit symbol in keyboard characters. Factors are separated by '*' or
+   * '/', may carry a numeric exponent, and may be grouped in parentheses with an exponent after the
+   * closing parenthesis. Each factor's name is resolved with one walk of the {@link
+   * #simpleSymbolTrie()}. A name that is not a symbol resolves to no unit, and its factor is
+   * dropped.
+   */
+  private final class UnitParser {
+    private final String s;
+    private final StringBuilder token = new StringBuilder();
+    private int i;
+
+    private UnitParser(String s) {
+      this.s = s;
+    }
+
+    private AggregateUnit parse() {
+      int tokenStart = this.token.length();
+      int length = this.s.length();
+      boolean negative = false;
+      Factors factors = new Factors();
+      for (; this.i < length; this.i++) {
+        char c = this.s.charAt(this.i);
+        if (c == '(') {
+          this.i++;
+          AggregateUnit subUnit = this.parse();
+          double exp = 1;
+
+          if (this.i < length) {
+            int expStart = ++this.i;
+            while (this.i < length && isGroupExponentChar(this.s.charAt(this.i))) {
+              this.i++;
+            }
+            int expEnd = this.i;
+            if (this.i < length) {
+              this.i--;
+            }
+            if (expEnd > expStart) {
+              exp = NumberScanner.parse(this.s, expStart, expEnd);
+            }
           }
-          if (!subB.isEmpty()) {
-            exp = Double.parseDouble(subB.toString());
+
+          if (negative) {
+            exp *= -1;
           }
-        }
 
-        if (negative) {
-          exp *= -1;
-        }
+          factors.add(subUnit, SmallFraction.approximate(exp));
+        } else if (c == ')') {
+          this.factor(negative, tokenStart, factors);
+          break;
+        } else if (c == '/' || c == '*') {
+          this.factor(negative, tokenStart, factors);
+          this.token.setLength(tokenStart);
+          negative = c == '/';
+        } else {
+          this.token.append(c);
 
-        aggregateUnit =
-            new AggregateUnit(
-                aggregateUnit, SmallFraction.ONE, subUnit, SmallFraction.approximate(exp));
-      } else if (chars[j] == ')') {
-        aggregateUnit = parseUnitExponent(negative, b, aggregateUnit);
-        break;
-      } else if (chars[j] == '/' || chars[j] == '*') {
-        aggregateUnit = parseUnitExponent(negative, b, aggregateUnit);
-
-        b = new StringBuilder();
-        negative = chars[j] == '/';
-      } else {
-        b.append(chars[j]);
-
-        if (j == chars.length - 1) {
-          aggregateUnit = parseUnitExponent(negative, b, aggregateUnit);
+          if (this.i == length - 1) {
+            this.factor(negative, tokenStart, factors);
+          }
         }
       }
+
+      this.token.setLength(tokenStart);
+      return factors.product();
     }
 
-    return aggregateUnit;
-  }
+    /**
+     * Multiplies in the factor held in the token from {@code tokenStart}: the first run of
+     * characters other than signs, dots and digits names a unit, and an exponent may follow it.
+     */
+    private void factor(boolean negative, int tokenStart, Factors factors) {
+      StringBuilder b = this.token;
+      int end = b.length();
+      int nameStart = tokenStart;
+      while (nameStart < end && isNumberChar(b.charAt(nameStart))) {
+        nameStart++;
+      }
+      if (nameStart == end) {
+        return;
+      }
 
-  private AggregateUnit parseUnitExponent(
-      boolean negative, StringBuilder b, AggregateUnit aggregateUnit) {
-    Matcher matcher = UNIT_PATTERN.matcher(b.toString());
+      int nameEnd = nameStart;
+      while (nameEnd < end && !isNumberChar(b.charAt(nameEnd))) {
+        nameEnd++;
+      }
+      int expEnd = NumberScanner.scanExponent(b, nameEnd, end);
 
-    if (matcher.find()) {
-      String name = matcher.group("name");
-      String exponent = matcher.group("exponent");
       SmallFraction exp = SmallFraction.ONE;
-      if (exponent != null && !exponent.isBlank()) {
-        exp = SmallFraction.approximate(Double.parseDouble(exponent));
+      if (expEnd > nameEnd) {
+        exp = SmallFraction.approximate(NumberScanner.parse(b, nameEnd, expEnd));
       }
 
       if (negative) {
         exp = SmallFraction.times(exp, -1);
       }
 
-      LiteralUnit literalUnit = this.simpleSymbolMap().get(name);
-      aggregateUnit = new AggregateUnit(aggregateUnit, SmallFraction.ONE, literalUnit, exp);
+      factors.add(simpleSymbolTrie().get(b, nameStart, nameEnd), exp);
     }
-    return aggregateUnit;
   }
 
+  /**
+   * The factors of one level of a unit string. Literal units are collected and multiplied together
+   * once the level is parsed, so the dimension vector and conversion of the product are only
+   * derived once rather than once per factor.
+   */
+  private static final class Factors {
+    private AggregateUnit groups = AggregateUnit.empty;
+    private LiteralUnit[] units = new LiteralUnit[4];
+    private int[] exponents = new int[4];
+    private int n;
+
+    /** Multiplies in a unit raised to the exponent. Units that could not be resolved are null. */
+    private void add(LiteralUnit unit, SmallFraction exp) {
+      if (unit == null) {
+        return;
+      }
+      if (this.n == this.units.length) {
+        this.units = Arrays.copyOf(this.units, 2 * this.n);
+        this.exponents = Arrays.copyOf(this.exponents, 2 * this.n);
+      }
+      this.units[this.n] = unit;
+      this.exponents[this.n++] = AggregateUnit.pack(exp.numerator(), exp.denominator());
+    }
+
+    /** Multiplies in a parenthesized group raised to the exponent. */
+    private void add(AggregateUnit group, SmallFraction exp) {
+      this.groups = new AggregateUnit(this.groups, SmallFraction.ONE, group, exp);
+    }
+
+    private AggregateUnit product() {
+      if (this.n == 0) {
+        return this.groups;
+      }
+
+      AggregateUnit literals = new AggregateUnit(this.units, this.exponents, this.n);
+      if (this.groups == AggregateUnit.empty) {
+        return literals;
+      }
+      return new AggregateUnit(this.groups, SmallFraction.ONE, literals, SmallFraction.ONE);
+    }
+  }
+
+  private static boolean isNumberChar(char c) {
+    return c == '-' || c == '+' || c == '.' || NumberScanner.isDigit(c);
+  }
+
+  private static boolean isGroupExponentChar(char c) {
+    return c == '-' || c == '+' || NumberScanner.isDigit(c);
+  }
+
+  /**
+   * Parses a quantity such as "18.3 kN" or "7,500 g": a number, which may use commas as thousands
+   * separators, followed by optional spaces and a unit symbol. A quantity without a unit symbol is
+   * unitless.
+   *
+   * @throws NumberFormatException if the string does not start with a parseable number.
+   */
   public QuantityValue parseQuantity(String qtyString) {
-    Matcher matcher = QTY_PATTERN.matcher(qtyString);
-    if (matcher.find()) {
-      String valueString = matcher.group("value");
-      String unitString = matcher.group("unit");
-      Unit unit;
-      if (unitString.isBlank()) {
-        unit = D1Units.UNITLESS.u;
-      } else {
-        unit = this.exactMatch(unitString);
+    int numberEnd = NumberScanner.scan(qtyString, 0, qtyString.length());
+    double value = NumberScanner.parseGrouped(qtyString, 0, numberEnd);
+    return QuantityValue.ofScaled(
+        value, this.parseQuantityUnit(quantityUnitString(qtyString, numberEnd)));
+  }
+
+  /**
+   * Parses many quantity strings at once, as {@link #parseQuantity(String)} does for one. See
+   * {@link #parseQuantities(Stream)}.
+   */
+  public Map<Unit, QuantityArray> parseQuantities(List<? extends CharSequence> qtyStrings) {
+    return this.parseQuantities(qtyStrings.parallelStream());
+  }
+
+  /**
+   * Parses many quantity strings at once, in parallel on the common ForkJoinPool. Each distinct
+   * unit string is resolved to a unit only once per call.
+   *
+   * @return one column per unit, in order of each unit's first appearance. Within a column, values
+   *     keep the order of the input.
+   * @throws NumberFormatException if a string does not start with a parseable number.
+   */
+  public Map<Unit, QuantityArray> parseQuantities(Stream<? extends CharSequence> qtyStrings) {
+    Map<String, Unit> units = new ConcurrentHashMap<>();
+    return qtyStrings
+        .parallel()
+        .collect(() -> new Columns(this, units), Columns::accept, Columns::combine)
+        .toArrays();
+  }
+
+  private Unit parseQuantityUnit(String unitString) {
+    return unitString.isBlank() ? D1Units.UNITLESS.u : this.exactMatch(unitString);
+  }
+
+  /** The unit symbol of a quantity string: the rest of the line after the number and any spaces. */
+  private static String quantityUnitString(CharSequence qtyString, int numberEnd) {
+    int length = qtyString.length();
+    int start = numberEnd;
+    while (start < length && qtyString.charAt(start) == ' ') {
+      start++;
+    }
+    int end = start;
+    while (end < length && !isLineTerminator(qtyString.charAt(end))) {
+      end++;
+    }
+    return qtyString.subSequence(start, end).toString();
+  }
+
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  /** Parsed values gathered into one growable unscaled column per unit. */
+  private static final class Columns {
+    private final UnitIndex index;
+    private final Map<String, Unit> units;
+    private final Map<Unit, Column> columns = new LinkedHashMap<>();
+
+    private Columns(UnitIndex index, Map<String, Unit> units) {
+      this.index = index;
+      this.units = units;
+    }
+
+    private void accept(CharSequence qtyString) {
+      int numberEnd = NumberScanner.scan(qtyString, 0, qtyString.length());
+      double value = NumberScanner.parseGrouped(qtyString, 0, numberEnd);
+      Unit unit =
+          this.units.computeIfAbsent(
+              quantityUnitString(qtyString, numberEnd), this.index::parseQuantityUnit);
+      this.columns.computeIfAbsent(unit, k -> new Column()).add(unit.unscale(value));
+    }
+
+    private void combine(Columns other) {
+      other.columns.forEach(
+          (unit, column) -> this.columns.computeIfAbsent(unit, k -> new Column()).addAll(column));
+    }
+
+    private Map<Unit, QuantityArray> toArrays() {
+      Map<Unit, QuantityArray> arrays = new LinkedHashMap<>(this.columns.size() * 2);
+      this.columns.forEach(
+          (unit, column) ->
+              arrays.put(
+                  unit, QuantityArray.ofUnscaled(Arrays.copyOf(column.values, column.size), unit)));
+      return arrays;
+    }
+  }
+
+  private static final class Column {
+    private double[] values = new double[16];
+    private int size;
+
+    private void add(double value) {
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, this.size * 2);
       }
-      return QuantityValue.ofScaled(
-          Double.parseDouble(String.join("", valueString.split(","))), unit);
+      this.values[this.size++] = value;
     }
 
-    return null;
+    private void addAll(Column other) {
+      if (this.size + other.size > this.values.length) {
+        this.values = Arrays.copyOf(this.values, Math.max(this.size * 2, this.size + other.size));
+      }
+      System.arraycopy(other.values, 0, this.values, this.size, other.size);
+      this.size += other.size;
+    }
   }
 
+  /**
+   * Registers a unit created at runtime, or a predefined unit found by {@link #exactMatch(String)},
+   * so that later lookups find it directly. At most {@link #retainRuntimeUnits(int) a limited
+   * number} of units are retained. Once there are more, the earliest registered are forgotten.
+   *
+   * <p>Any number of units may share a dimension vector or a symbol. Units sharing a symbol are
+   * kept in {@link #REGISTRY_ORDER}, and the first of them is the one the symbol resolves to,
+   * whatever order they were registered in. Units are registered by identity, so a unit equal to
+   * one already registered, such as the same unit under another URI, is registered as well. This is
+   * safe to call from several threads at once.
+   */
   public void registerUnit(LiteralUnit unit) {
-    this.runtimeUnits.computeIfAbsent(
-        unit.dv().indexCode(),
-        k -> {
-          ConcurrentLinkedQueue<LiteralUnit> q = new ConcurrentLinkedQueue<>();
-          q.add(unit);
-          return q;
+    int evicted;
+    synchronized (this.registered) {
+      if (!this.registered.add(unit)) {
+        return;
+      }
+
+      register(this.runtimeUnits, unit.dv().indexCode(), unit);
+      register(this.symbolMap, toKeyboardChars(unit.symbol()), unit);
+      this.registrations.add(unit);
+      evicted = this.trimRuntimeUnits();
+    }
+
+    // A new runtime unit can be an exact match for symbols that were cached as aggregates. A
+    // predefined unit was already a candidate for every exact match, so it changes nothing cached,
+    // but the units it pushed out may be cached.
+    if (evicted > 0 || !isPredefined(unit)) {
+      this.symbolCache.clear();
+    }
+  }
+
+  /**
+   * The order of registered units that share a key: predefined units before units created at
+   * runtime, then by symbol, dimension vector and conversion.
+   */
+  private static final Comparator<LiteralUnit> REGISTRY_ORDER =
+      Comparator.comparing((LiteralUnit u) -> !isPredefined(u)).thenComparing(LiteralUnit::compare);
+
+  /** Adds the unit to the immutable, ordered list under the key, replacing the list atomically. */
+  private static void register(Map<String, List<LiteralUnit>> map, String key, LiteralUnit unit) {
+    map.compute(
+        key,
+        (k, units) -> {
+          if (units == null) {
+            return List.of(unit);
+          }
+
+          LiteralUnit[] array = units.toArray(NO_UNITS);
+          int i = Arrays.binarySearch(array, unit, REGISTRY_ORDER);
+          if (i >= 0 && indexOf(array, unit) >= 0) {
+            return units;
+          }
+
+          LiteralUnit[] inserted = new LiteralUnit[array.length + 1];
+          int at = i >= 0 ? i : -i - 1;
+          System.arraycopy(array, 0, inserted, 0, at);
+          inserted[at] = unit;
+          System.arraycopy(array, at, inserted, at + 1, array.length - at);
+          return List.of(inserted);
         });
-    String sym = toKeyboardChars(unit.symbol());
-    this.symbolMap.computeIfAbsent(
-        sym,
-        k -> {
-          ConcurrentLinkedQueue<LiteralUnit> q = new ConcurrentLinkedQueue<>();
-          q.add(unit);
-          return q;
+  }
+
+  /**
+   * Limits the number of registered runtime units retained by this index, forgetting the earliest
+   * registered units if there are already more. Forgotten predefined units are still found through
+   * {@link Units#byDV}. Forgotten units created by {@link #demandExactLiteral} are created again,
+   * equal but not identical, if they are demanded again.
+   */
+  public void retainRuntimeUnits(int maxRuntimeUnits) {
+    if (maxRuntimeUnits < 0) {
+      throw new IllegalArgumentException("Maximum must not be negative: " + maxRuntimeUnits);
+    }
+
+    synchronized (this.registered) {
+      this.maxRuntimeUnits = maxRuntimeUnits;
+      this.trimRuntimeUnits();
+    }
+    this.symbolCache.clear();
+  }
+
+  /** The number of runtime units currently registered. */
+  public int runtimeUnitCount() {
+    synchronized (this.registered) {
+      return this.registered.size();
+    }
+  }
+
+  /** The number of symbols that currently resolve directly to a registered unit. */
+  public int registeredSymbolCount() {
+    return this.symbolMap.size();
+  }
+
+  /** The number of registered runtime units forgotten because of the retention limit. */
+  public long runtimeUnitEvictions() {
+    return this.runtimeUnitEvictions.sum();
+  }
+
+  /** Returns the currently registered runtime units, earliest registered first. */
+  public List<LiteralUnit> runtimeUnitsSnapshot() {
+    synchronized (this.registered) {
+      return List.copyOf(this.registrations);
+    }
+  }
+
+  /**
+   * Forgets registered units that are predefined. They are still found through {@link Units#byDV},
+   * so this only gives up the shortcut from their symbols, and keeps every unit created at runtime.
+   *
+   * @return the number of units forgotten.
+   */
+  public int compactRuntimeUnits() {
+    int removed = 0;
+    synchronized (this.registered) {
+      for (Iterator<LiteralUnit> it = this.registrations.iterator(); it.hasNext(); ) {
+        LiteralUnit unit = it.next();
+        if (isPredefined(unit)) {
+          it.remove();
+          this.forget(unit);
+          removed++;
+        }
+      }
+    }
+
+    if (removed > 0) {
+      this.symbolCache.clear();
+    }
+    return removed;
+  }
+
+  private static boolean isPredefined(LiteralUnit unit) {
+    for (LiteralUnit predefined : Units.byDV.getOrDefault(unit.dv().indexCode(), NO_UNITS)) {
+      if (predefined == unit) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Forgets the earliest registered units until no more than the maximum are retained. Called while
+   * holding the lock on {@link #registered}.
+   *
+   * @return the number of units forgotten.
+   */
+  private int trimRuntimeUnits() {
+    int evicted = 0;
+    while (this.registered.size() > this.maxRuntimeUnits) {
+      this.forget(this.registrations.remove());
+      evicted++;
+    }
+    this.runtimeUnitEvictions.add(evicted);
+    return evicted;
+  }
+
+  /**
+   * Removes a registered unit from the lookups. Called while holding the lock on {@link
+   * #registered}, after removing the unit from {@link #registrations}.
+   */
+  private void forget(LiteralUnit unit) {
+    forget(this.runtimeUnits, unit.dv().indexCode(), unit);
+    forget(this.symbolMap, toKeyboardChars(unit.symbol()), unit);
+    this.registered.remove(unit);
+  }
+
+  /** Removes this very unit from the list under the key, leaving any equal units in place. */
+  private static void forget(Map<String, List<LiteralUnit>> map, String key, LiteralUnit unit) {
+    map.computeIfPresent(
+        key,
+        (k, units) -> {
+          int i = indexOf(units.toArray(NO_UNITS), unit);
+          if (i < 0) {
+            return units;
+          }
+
+          List<LiteralUnit> remaining = new ArrayList<>(units);
+          remaining.remove(i);
+          return remaining.isEmpty() ? null : List.copyOf(remaining);
         });
   }
 
+  /** The position of this very unit in the array, or -1 if only equal units or none are in it. */
+  private static int indexOf(LiteralUnit[] units, LiteralUnit unit) {
+    for (int i = 0; i < units.length; i++) {
+      if (units[i] == unit) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   public Optional<LiteralUnit> unitByUri(String uri) {
     return units().filter(u -> uri.equals(u.uri())).findAny();
   }
@@ -0,0 +1,142 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1T_1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class AggregateUnitTest {
+
+  @Test
+  void derivedProperties() {
+    AggregateUnit kmPerHr = new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1);
+
+    Assertions.assertSame(L1T_1Units.M_PER_SEC.u.dv(), kmPerHr.dv());
+    Assertions.assertEquals(1000. / 3600., kmPerHr.conversionMultiplier(), 1e-12);
+    Assertions.assertEquals(0, kmPerHr.conversionOffset());
+    Assertions.assertSame(kmPerHr.symbol(), kmPerHr.symbol());
+    Assertions.assertEquals("km⋅h⁻¹", kmPerHr.symbol());
+    Assertions.assertEquals(36, kmPerHr.scale(10), 1e-9);
+    Assertions.assertEquals(10, kmPerHr.unscale(36), 1e-9);
+  }
+
+  @Test
+  void offsetOnlyForUnaryDimensions() {
+    AggregateUnit degC = new AggregateUnit(H1Units.DEG_C.u, 1);
+    Assertions.assertEquals(H1Units.DEG_C.u.conversionOffset(), degC.conversionOffset());
+    Assertions.assertEquals(32 + 273.15, degC.unscale(32), 1e-9);
+
+    AggregateUnit degCPerSec = new AggregateUnit(H1Units.DEG_C.u, 1, T1Units.SEC.u, -1);
+    Assertions.assertEquals(0, degCPerSec.conversionOffset());
+  }
+
+  @Test
+  void empty() {
+    Assertions.assertTrue(AggregateUnit.empty.dv().dimensionless());
+    Assertions.assertEquals(1, AggregateUnit.empty.conversionMultiplier());
+    Assertions.assertEquals("", AggregateUnit.empty.symbol());
+  }
+
+  @Test
+  void zeroExponentIsEmpty() {
+    AggregateUnit km0 = new AggregateUnit(L1Units.KiloM.u, 0);
+    Assertions.assertEquals(0, km0.size());
+    Assertions.assertEquals("", km0.symbol());
+    Assertions.assertEquals(AggregateUnit.empty, km0);
+    Assertions.assertTrue(km0.dv().dimensionless());
+    Assertions.assertEquals(1, km0.conversionMultiplier());
+
+    AggregateUnit kmPerHr = new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1);
+    Assertions.assertEquals(AggregateUnit.empty, new AggregateUnit(kmPerHr, 0));
+
+    QuantityValue one = QuantityValue.pow(QuantityValue.ofScaled(2, L1Units.KiloM.u), 0);
+    Assertions.assertEquals(1, one.unscaled());
+    Assertions.assertEquals(1, one.value());
+    Assertions.assertEquals("", one.unit().symbol());
+  }
+
+  @Test
+  void structuralEquality() {
+    AggregateUnit mPerS = new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -1);
+    AggregateUnit perSM = new AggregateUnit(T1Units.SEC.u, -1, L1Units.M.u, 1);
+    AggregateUnit kmPerS = new AggregateUnit(L1Units.KiloM.u, 1, T1Units.SEC.u, -1);
+
+    Assertions.assertEquals(mPerS, perSM);
+    Assertions.assertEquals(mPerS.hashCode(), perSM.hashCode());
+    Assertions.assertNotEquals(mPerS, kmPerS);
+    Assertions.assertNotEquals(mPerS, new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -2));
+
+    AggregateUnit m = new AggregateUnit(L1Units.M.u, 1);
+    Assertions.assertEquals(L1Units.M.u, m.trivialToLiteral());
+  }
+
+  @Test
+  void trivialEqualsLiteral() {
+    AggregateUnit m = new AggregateUnit(L1Units.M.u, 1);
+    Assertions.assertEquals(m, L1Units.M.u);
+    Assertions.assertEquals(L1Units.M.u, m);
+    Assertions.assertEquals(L1Units.M.u.hashCode(), m.hashCode());
+    Assertions.assertTrue(Set.of(L1Units.M.u).contains(m));
+    Assertions.assertEquals(QuantityValue.ofScaled(2, L1Units.M.u), QuantityValue.ofScaled(2, m));
+
+    Assertions.assertNotEquals(new AggregateUnit(L1Units.M.u, 2), L1Units.M.u);
+    Assertions.assertNotEquals(L1Units.M.u, new AggregateUnit(L1Units.M.u, 2));
+    Assertions.assertNotEquals(L1Units.KiloM.u, m);
+  }
+
+  @Test
+  void intern() {
+    AggregateUnit first = new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -1).intern();
+    AggregateUnit second = new AggregateUnit(T1Units.SEC.u, -1, L1Units.M.u, 1);
+
+    Assertions.assertNotSame(first, second);
+    Assertions.assertSame(first, second.intern());
+    Assertions.assertSame(first, first.intern());
+  }
+
+  @Test
+  void internIsBounded() {
+    AggregateUnit first = new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -7).intern();
+    for (int i = 0; i <= AggregateUnit.MAX_INTERNED; i++) {
+      new AggregateUnit(L1Units.M.u, i % 64 + 1, T1Units.SEC.u, i / 64 + 1).intern();
+    }
+
+    AggregateUnit again = new AggregateUnit(T1Units.SEC.u, -7, L1Units.M.u, 1);
+    Assertions.assertSame(again, again.intern());
+    Assertions.assertNotSame(first, again.intern());
+  }
+
+  @Test
+  void merge() {
+    AggregateUnit mPerS = new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -1);
+    AggregateUnit mPerS2 = new AggregateUnit(mPerS, 1, T1Units.SEC.u, -1);
+    Assertions.assertEquals(2, mPerS2.size());
+    Assertions.assertSame(L1Units.M.u, mPerS2.unit(0));
+    Assertions.assertSame(T1Units.SEC.u, mPerS2.unit(1));
+    Assertions.assertEquals(SmallFraction.of(-2), mPerS2.exponent(1));
+
+    AggregateUnit m = new AggregateUnit(mPerS2, 1, T1Units.SEC.u, 2);
+    Assertions.assertTrue(m.trivial());
+    Assertions.assertSame(L1Units.M.u, m.trivialToLiteral());
+
+    AggregateUnit none = new AggregateUnit(mPerS, 1, mPerS, -1);
+    Assertions.assertEquals(0, none.size());
+    Assertions.assertEquals(AggregateUnit.empty, none);
+
+    AggregateUnit root = new AggregateUnit(mPerS2, SmallFraction.of(1, 2));
+    Assertions.assertEquals(mPerS2.dv(), root.dv().scaledBy(SmallFraction.of(2)));
+    Assertions.assertEquals(
+        new AggregateUnit(
+            L1Units.M.u, SmallFraction.of(1, 2), T1Units.SEC.u, SmallFraction.NEG_ONE),
+        root);
+
+    AggregateUnit fromMap =
+        new AggregateUnit(Map.of(L1Units.M.u, SmallFraction.ONE, mPerS, SmallFraction.of(-1)));
+    Assertions.assertEquals(new AggregateUnit(T1Units.SEC.u, 1), fromMap);
+  }
+}
@@ -0,0 +1,112 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1T_1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class ConverterTest {
+
+  @Test
+  void matchesScaleAndUnscale() {
+    Unit[][] pairs = {
+      {L1Units.KiloM.u, L1Units.M.u},
+      {L1Units.FT.u, L1Units.M.u},
+      {H1Units.DEG_C.u, H1Units.DEG_F.u},
+      {H1Units.DEG_F.u, H1Units.K.u},
+      {new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1), L1T_1Units.M_PER_SEC.u},
+    };
+
+    for (Unit[] pair : pairs) {
+      Converter c = Converter.of(pair[0], pair[1]);
+      for (double x : new double[] {-40, 0, 1, 32, 100, 1e6}) {
+        double expected = pair[1].scale(pair[0].unscale(x));
+        Assertions.assertEquals(expected, c.convert(x), 1e-9 * Math.max(1, Math.abs(expected)));
+        Assertions.assertEquals(c.convert(x), c.applyAsDouble(x));
+      }
+    }
+
+    Assertions.assertEquals(-40, Converter.of(H1Units.DEG_C.u, H1Units.DEG_F.u).convert(-40), 1e-2);
+    Assertions.assertTrue(Converter.of(L1Units.M.u, L1Units.M.u).isIdentity());
+  }
+
+  @Test
+  void notConvertible() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> Converter.of(L1Units.M.u, T1Units.SEC.u));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> new UnitIndex().converter(L1Units.M.u, T1Units.SEC.u));
+  }
+
+  @Test
+  void cached() {
+    UnitIndex index = new UnitIndex();
+    Converter c = index.converter(L1Units.KiloM.u, L1Units.M.u);
+    Assertions.assertSame(c, index.converter(L1Units.KiloM.u, L1Units.M.u));
+    Assertions.assertNotSame(c, index.converter(L1Units.M.u, L1Units.KiloM.u));
+    Assertions.assertSame(
+        index.converter(
+            new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1), L1T_1Units.M_PER_SEC.u),
+        index.converter(
+            new AggregateUnit(T1Units.HR.u, -1, L1Units.KiloM.u, 1), L1T_1Units.M_PER_SEC.u));
+  }
+
+  @Test
+  void cacheIsBounded() {
+    UnitIndex index = new UnitIndex();
+    Converter first = index.converter(L1Units.KiloM.u, L1Units.M.u);
+    for (int i = 0; i < UnitIndex.DEFAULT_MAX_CONVERTERS + 100; i++) {
+      LiteralUnit parsed = new LiteralUnit("x" + i, "x" + i, "x" + i, L1Units.M.u.dv(), 0, i + 2);
+      Assertions.assertEquals(i + 2, index.converter(parsed, L1Units.M.u).convert(1), 1e-9);
+    }
+
+    Assertions.assertTrue(index.converterCount() <= UnitIndex.DEFAULT_MAX_CONVERTERS);
+    Assertions.assertNotSame(first, index.converter(L1Units.KiloM.u, L1Units.M.u));
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> index.converter(L1Units.M.u, T1Units.SEC.u));
+    Assertions.assertTrue(index.converterCount() <= UnitIndex.DEFAULT_MAX_CONVERTERS);
+  }
+
+  @Test
+  void bulk() {
+    Converter c = Converter.of(H1Units.DEG_C.u, H1Units.DEG_F.u);
+    double[] src = {-40, 0, 100};
+    double[] dst = new double[3];
+    c.convert(src, dst);
+    Assertions.assertArrayEquals(new double[] {-40, 32, 212}, dst, 1e-2);
+
+    c.convert(src, src);
+    Assertions.assertArrayEquals(new double[] {-40, 32, 212}, src, 1e-2);
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> c.convert(dst, new double[2]));
+  }
+
+  @Test
+  void buffers() {
+    Converter c = Converter.of(L1Units.KiloM.u, L1Units.M.u);
+    DoubleBuffer src = DoubleBuffer.wrap(new double[] {9, 1, 2, 3});
+    src.position(1);
+    DoubleBuffer heap = DoubleBuffer.allocate(3);
+    c.convert(src, heap);
+    Assertions.assertEquals(4, src.position());
+    Assertions.assertEquals(3, heap.position());
+    Assertions.assertArrayEquals(new double[] {1000, 2000, 3000}, heap.array(), 1e-9);
+
+    DoubleBuffer direct = ByteBuffer.allocateDirect(3 * Double.BYTES).asDoubleBuffer();
+    c.convert(heap.flip(), direct);
+    Assertions.assertEquals(1e6, direct.get(0), 1e-6);
+    Assertions.assertEquals(3e6, direct.get(2), 1e-6);
+
+    Assertions.assertThrows(
+        BufferOverflowException.class,
+        () -> c.convert(DoubleBuffer.allocate(2), DoubleBuffer.allocate(1)));
+  }
+}
@@ -2,6 +2,10 @@ package com.occamsystems.qudt;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.occamsystems.qudt.predefined.DimensionVectors;
+import com.occamsystems.qudt.predefined.units.L1T_1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -34,5 +38,66 @@ class DimensionVectorTest {
             .withLuminousIntensity(5)
             .build();
     Assertions.assertEquals("I5H_1dot5", build.indexCode());
+    Assertions.assertSame(build.indexCode(), build.indexCode());
+    Assertions.assertSame(build.localName(), build.localName());
+    Assertions.assertEquals(DimensionVector.QKDV + "A0E0L0I5M0H-1dot5T0D0", build.uri());
+  }
+
+  @Test
+  void packedArithmetic() {
+    DimensionVector velocity = DimensionVector.builder().withLength(1).withTime(-1).build();
+    DimensionVector time = DimensionVector.builder().withTime(1).build();
+    DimensionVector length = DimensionVector.builder().withLength(1).build();
+
+    Assertions.assertEquals(length, DimensionVector.add(velocity, time));
+    Assertions.assertEquals(length.packed(), DimensionVector.add(velocity, time).packed());
+    Assertions.assertTrue(
+        DimensionVector.add(velocity, velocity.scaledBy(SmallFraction.NEG_ONE)).isEmpty());
+    Assertions.assertEquals(
+        DimensionVector.DIMENSIONLESS.packed(), velocity.scaledBy(SmallFraction.ZERO).packed());
+
+    DimensionVector half = length.scaledBy(new SmallFraction(1, 2));
+    Assertions.assertEquals(new SmallFraction(1, 2), half.length());
+    Assertions.assertEquals("L0dot5", half.indexCode());
+    Assertions.assertEquals(length, DimensionVector.add(half, half));
+    Assertions.assertEquals(
+        new SmallFraction(5, 6),
+        DimensionVector.add(half, length.scaledBy(new SmallFraction(1, 3))).length());
+
+    Assertions.assertEquals(
+        new DimensionVector(new int[] {0, 1, 0, 1, 2, 4, 0, 1, 0, 1, 0, 1, -1, 1}),
+        DimensionVector.builder().withLength(half.length()).withTime(-1).build());
+    Assertions.assertTrue(
+        velocity
+            .scaledBy(new SmallFraction(-1, 1))
+            .scaledBy(SmallFraction.NEG_ONE)
+            .equivalent(velocity));
+    Assertions.assertArrayEquals(
+        new SmallFraction[] {
+          SmallFraction.ZERO,
+          SmallFraction.ZERO,
+          SmallFraction.ONE,
+          SmallFraction.ZERO,
+          SmallFraction.ZERO,
+          SmallFraction.ZERO,
+          SmallFraction.NEG_ONE
+        },
+        velocity.vector());
+    Assertions.assertThrows(
+        ArithmeticException.class, () -> length.scaledBy(new SmallFraction(200)));
+  }
+
+  @Test
+  void intern() {
+    Assertions.assertSame(DimensionVectors.L1, DimensionVector.builder().withLength(1).build());
+    Assertions.assertSame(
+        DimensionVectors.L1, new DimensionVector(new int[] {0, 0, 1, 0, 0, 0, 0}).intern());
+    Assertions.assertSame(DimensionVectors.D1, DimensionVector.DIMENSIONLESS.intern());
+    Assertions.assertSame(
+        L1T_1Units.M_PER_SEC.u.dv(), new AggregateUnit(L1Units.M.u, 1, T1Units.SEC.u, -1).dv());
+
+    DimensionVector odd = DimensionVector.builder().withLength(7).withMass(-5).withTime(3).build();
+    Assertions.assertSame(odd, new DimensionVector(new int[] {0, 0, 7, 0, -5, 0, 3}).intern());
+    Assertions.assertSame(odd, DimensionVector.add(odd, DimensionVector.DIMENSIONLESS));
   }
 }
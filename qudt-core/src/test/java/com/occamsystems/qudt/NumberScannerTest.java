@@ -0,0 +1,89 @@
+package com.occamsystems.qudt;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class NumberScannerTest {
+
+  private static void assertParsesLikeJdk(String s) {
+    double expected = Double.parseDouble(s);
+    Assertions.assertEquals(
+        Double.doubleToRawLongBits(expected),
+        Double.doubleToRawLongBits(NumberScanner.parse(s, 0, s.length())),
+        s);
+  }
+
+  @Test
+  void parse() {
+    for (String s :
+        List.of(
+            "0",
+            "-0",
+            "+0.0",
+            "1",
+            "-1",
+            "18.3",
+            ".5",
+            "1.",
+            "3e5",
+            "3E-5",
+            "1e22",
+            "1e23",
+            "1e-22",
+            "1e-23",
+            "123456789012345678",
+            "1234567890123456789",
+            "9007199254740993",
+            "0.1",
+            "-2.5e+3",
+            "1e308",
+            "1e309",
+            "4.9e-324",
+            "0.000000000000000000000000001",
+            "NaN",
+            "Infinity",
+            "1d")) {
+      assertParsesLikeJdk(s);
+    }
+
+    Random r = new Random(17);
+    for (int i = 0; i < 100_000; i++) {
+      long mantissa = r.nextLong() >>> (1 + r.nextInt(63));
+      String digits = Long.toString(mantissa);
+      int dot = r.nextInt(digits.length() + 1);
+      String s = digits.substring(0, dot) + "." + digits.substring(dot);
+      if (r.nextBoolean()) {
+        s += "e" + (r.nextInt(61) - 30);
+      }
+      assertParsesLikeJdk(r.nextBoolean() ? "-" + s : s);
+    }
+
+    for (String s : List.of("", "-", ".", "e5", "1e", "+-1", "1,000", "1..2")) {
+      Assertions.assertThrows(
+          NumberFormatException.class, () -> NumberScanner.parse(s, 0, s.length()), s);
+    }
+  }
+
+  @Test
+  void parseGrouped() {
+    Assertions.assertEquals(7500, NumberScanner.parseGrouped("7,500", 0, 5));
+    Assertions.assertEquals(1234567.5, NumberScanner.parseGrouped("x1,234,567.5", 1, 12));
+    Assertions.assertEquals(1.5, NumberScanner.parseGrouped("1.5,0", 0, 5));
+    Assertions.assertThrows(
+        NumberFormatException.class, () -> NumberScanner.parseGrouped(",", 0, 1));
+  }
+
+  @Test
+  void scan() {
+    Assertions.assertEquals(4, NumberScanner.scan("18.3 kN", 0, 7));
+    Assertions.assertEquals(3, NumberScanner.scan("3e5mL/mol/K", 0, 11));
+    Assertions.assertEquals(1, NumberScanner.scan("3em", 0, 3));
+    Assertions.assertEquals(1, NumberScanner.scan("1.e5", 0, 4));
+    Assertions.assertEquals(5, NumberScanner.scan("7,500 g", 0, 7));
+    Assertions.assertEquals(0, NumberScanner.scan("kg", 0, 2));
+    Assertions.assertEquals(3, NumberScanner.scanExponent("m-2e3", 1, 5));
+  }
+}
@@ -0,0 +1,135 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.D1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.L2M1T_2Units;
+import com.occamsystems.qudt.predefined.units.L2M1T_3Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class QuantityAccumulatorTest {
+
+  @Test
+  void sumOfProducts() {
+    QuantityValue[] power = new QuantityValue[10];
+    QuantityValue[] dt = new QuantityValue[10];
+    QuantityValue expected = QuantityValue.ofNumber(0);
+    for (int i = 0; i < power.length; i++) {
+      power[i] = QuantityValue.ofScaled(i + 1, L2M1T_3Units.KiloW.u);
+      dt[i] = QuantityValue.ofScaled(0.5, T1Units.HR.u);
+      expected = expected.plus(power[i].times(dt[i]));
+    }
+
+    QuantityAccumulator energy = new QuantityAccumulator();
+    for (int i = 0; i < power.length; i++) {
+      energy.plusProduct(power[i], dt[i]);
+    }
+
+    QuantityValue total = energy.toQuantityValue();
+    Assertions.assertEquals(expected.unscaled(), total.unscaled(), 1e-6);
+    Assertions.assertEquals(expected.unit(), total.unit());
+    Assertions.assertEquals(27.5, total.inUnit(L2M1T_2Units.KiloW_HR.u).value(), 1e-9);
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> energy.plus(QuantityValue.ofScaled(1, L2M1T_3Units.KiloW.u)));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> energy.plusProduct(power[0], power[0]));
+  }
+
+  @Test
+  void productsMatchQuantityValue() {
+    QuantityValue km = QuantityValue.ofScaled(3, L1Units.KiloM.u);
+    QuantityValue hr = QuantityValue.ofScaled(2, T1Units.HR.u);
+
+    QuantityAccumulator acc = new QuantityAccumulator(km);
+    acc.times(km).dividedBy(hr).dividedBy(km).times(4).dividedBy(2);
+    QuantityValue expected = km.times(km).dividedBy(hr).dividedBy(km).times(4).dividedBy(2);
+
+    QuantityValue result = acc.toQuantityValue();
+    Assertions.assertEquals(expected.unscaled(), result.unscaled(), 1e-9);
+    Assertions.assertEquals(expected.unit().dv(), result.unit().dv());
+    Assertions.assertEquals(new AggregateUnit(L1Units.KiloM.u, 1, T1Units.HR.u, -1), result.unit());
+    Assertions.assertSame(acc.dv(), result.unit().dv());
+
+    acc.times(hr);
+    Assertions.assertSame(L1Units.KiloM.u, acc.toQuantityValue().unit());
+    acc.dividedBy(km);
+    Assertions.assertSame(D1Units.NUM.u, acc.toQuantityValue().unit());
+  }
+
+  @Test
+  void zeroAdoptsUnit() {
+    QuantityAccumulator acc = new QuantityAccumulator();
+    acc.minus(QuantityValue.ofScaled(2, L1Units.KiloM.u));
+    acc.plus(QuantityValue.ofScaled(500, L1Units.M.u));
+    Assertions.assertEquals(-1500, acc.unscaled(), 1e-9);
+    Assertions.assertSame(L1Units.KiloM.u, acc.toQuantityValue().unit());
+
+    acc.reset().plus(QuantityValue.ofScaled(1, T1Units.SEC.u));
+    Assertions.assertSame(T1Units.SEC.u, acc.toQuantityValue().unit());
+  }
+
+  @Test
+  void allocationFree() {
+    QuantityValue power = QuantityValue.ofScaled(2, L2M1T_3Units.KiloW.u);
+    QuantityValue dt = QuantityValue.ofScaled(1, T1Units.SEC.u);
+    QuantityAccumulator energy = new QuantityAccumulator();
+    for (int i = 0; i < 10_000; i++) {
+      energy.plusProduct(power, dt);
+    }
+
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+        || !bean.isThreadAllocatedMemorySupported()) {
+      return;
+    }
+
+    long id = Thread.currentThread().getId();
+    long before = bean.getThreadAllocatedBytes(id);
+    for (int i = 0; i < 100_000; i++) {
+      energy.plusProduct(power, dt);
+    }
+    long allocated = bean.getThreadAllocatedBytes(id) - before;
+
+    // A single allocation per iteration would account for at least 1.6 MB.
+    Assertions.assertTrue(allocated < 64 * 1024, allocated + " bytes allocated");
+    Assertions.assertEquals(220_000_000, energy.unscaled(), 1e-3);
+  }
+
+  @Test
+  void allocationFreeWithFractionalExponents() {
+    QuantityValue a =
+        QuantityValue.ofScaled(2, new AggregateUnit(L1Units.M.u, SmallFraction.of(1, 2)));
+    QuantityValue b =
+        QuantityValue.ofScaled(3, new AggregateUnit(L1Units.M.u, SmallFraction.of(1, 3)));
+    QuantityValue c =
+        QuantityValue.ofScaled(1, new AggregateUnit(T1Units.SEC.u, SmallFraction.of(-2, 3)));
+    QuantityAccumulator sum = new QuantityAccumulator();
+    QuantityAccumulator ratio = new QuantityAccumulator(QuantityValue.ofScaled(1, L1Units.M.u));
+    for (int i = 0; i < 10_000; i++) {
+      sum.plusProduct(a, b);
+      ratio.times(c).dividedBy(c);
+    }
+
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+        || !bean.isThreadAllocatedMemorySupported()) {
+      return;
+    }
+
+    long id = Thread.currentThread().getId();
+    long before = bean.getThreadAllocatedBytes(id);
+    for (int i = 0; i < 100_000; i++) {
+      sum.plusProduct(a, b);
+      ratio.times(c).dividedBy(c);
+    }
+    long allocated = bean.getThreadAllocatedBytes(id) - before;
+
+    Assertions.assertTrue(allocated < 64 * 1024, allocated + " bytes allocated");
+    Assertions.assertEquals(new AggregateUnit(L1Units.M.u, SmallFraction.of(5, 6)).dv(), sum.dv());
+    Assertions.assertEquals(660_000, sum.unscaled(), 1e-6);
+    Assertions.assertEquals(L1Units.M.u.dv(), ratio.dv());
+  }
+}
@@ -0,0 +1,95 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1T_1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class QuantityArrayTest {
+
+  @Test
+  void singleElementAccess() {
+    QuantityArray km = QuantityArray.ofScaled(new double[] {1, 2.5, -3}, L1Units.KiloM.u);
+
+    Assertions.assertEquals(3, km.size());
+    Assertions.assertEquals(2500, km.unscaled(1));
+    Assertions.assertEquals(2.5, km.value(1), 1e-12);
+    Assertions.assertEquals(QuantityValue.ofScaled(2.5, L1Units.KiloM.u), km.get(1));
+    Assertions.assertArrayEquals(new double[] {1, 2.5, -3}, km.values(), 1e-12);
+
+    km.set(2, QuantityValue.ofScaled(7, L1Units.M.u));
+    Assertions.assertEquals(0.007, km.value(2), 1e-12);
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> km.set(0, QuantityValue.ofScaled(1, T1Units.SEC.u)));
+
+    QuantityArray fromValues =
+        QuantityArray.of(
+            List.of(
+                QuantityValue.ofScaled(1, L1Units.KiloM.u), QuantityValue.ofScaled(5, L1Units.M.u)),
+            L1Units.M.u);
+    Assertions.assertArrayEquals(new double[] {1000, 5}, fromValues.values(), 1e-12);
+  }
+
+  @Test
+  void additive() {
+    QuantityArray km = QuantityArray.ofScaled(new double[] {1, 2, 3}, L1Units.KiloM.u);
+    QuantityArray m = QuantityArray.ofScaled(new double[] {10, 20, 30}, L1Units.M.u);
+
+    QuantityArray sum = km.plus(m);
+    Assertions.assertNotSame(km, sum);
+    Assertions.assertSame(L1Units.KiloM.u, sum.unit());
+    Assertions.assertArrayEquals(new double[] {1.01, 2.02, 3.03}, sum.values(), 1e-12);
+    Assertions.assertArrayEquals(new double[] {1, 2, 3}, km.values(), 1e-12);
+
+    QuantityArray difference = km.minus(QuantityValue.ofScaled(500, L1Units.M.u));
+    Assertions.assertArrayEquals(new double[] {0.5, 1.5, 2.5}, difference.values(), 1e-12);
+
+    Assertions.assertSame(km, km.plusMut(m));
+    Assertions.assertArrayEquals(new double[] {1.01, 2.02, 3.03}, km.values(), 1e-12);
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> km.plus(QuantityArray.zeros(3, T1Units.SEC.u)));
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> km.plus(QuantityArray.zeros(2, L1Units.M.u)));
+  }
+
+  @Test
+  void multiplicative() {
+    QuantityArray km = QuantityArray.ofScaled(new double[] {36, 72}, L1Units.KiloM.u);
+    QuantityArray hr = QuantityArray.ofScaled(new double[] {1, 2}, T1Units.HR.u);
+
+    QuantityArray speed = km.dividedBy(hr);
+    Assertions.assertTrue(speed.unit().isConvertible(L1T_1Units.M_PER_SEC.u));
+    Assertions.assertArrayEquals(new double[] {36, 36}, speed.values(), 1e-9);
+    Assertions.assertArrayEquals(
+        new double[] {10, 10}, speed.inUnit(L1T_1Units.M_PER_SEC.u).values(), 1e-9);
+
+    QuantityArray back = speed.times(hr);
+    Assertions.assertTrue(back.unit().isConvertible(L1Units.M.u));
+    Assertions.assertArrayEquals(new double[] {36000, 72000}, back.unscaledValues(), 1e-9);
+
+    QuantityArray perSec = km.dividedBy(QuantityValue.ofScaled(2, T1Units.SEC.u));
+    Assertions.assertArrayEquals(new double[] {18000, 36000}, perSec.unscaledValues(), 1e-9);
+    Assertions.assertArrayEquals(new double[] {72, 144}, km.times(2).values(), 1e-9);
+    Assertions.assertArrayEquals(new double[] {18, 36}, km.dividedBy(2).values(), 1e-9);
+  }
+
+  @Test
+  void inUnit() {
+    QuantityArray degC = QuantityArray.ofScaled(new double[] {0, 100}, H1Units.DEG_C.u);
+    QuantityArray k = degC.inUnit(H1Units.K.u);
+
+    Assertions.assertArrayEquals(new double[] {273.15, 373.15}, k.values(), 1e-9);
+    Assertions.assertArrayEquals(degC.unscaledValues(), k.unscaledValues());
+    Assertions.assertNotSame(degC.unscaledValues(), k.unscaledValues());
+    Assertions.assertEquals(degC, k);
+
+    Assertions.assertSame(degC, degC.inUnitMut(H1Units.K.u));
+    Assertions.assertSame(H1Units.K.u, degC.unit());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> k.inUnit(L1Units.M.u));
+  }
+}
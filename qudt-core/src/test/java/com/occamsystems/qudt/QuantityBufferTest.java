@@ -0,0 +1,128 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1T_1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class QuantityBufferTest {
+
+  @Test
+  void matchesQuantityValue() {
+    QuantityBuffer degF = QuantityBuffer.allocate(3, H1Units.DEG_F.u);
+    double[] readings = {-40, 32, 212};
+    for (int i = 0; i < readings.length; i++) {
+      degF.value(i, readings[i]);
+    }
+
+    QuantityValue delta = QuantityValue.ofScaled(10, H1Units.K.u);
+    degF.plusMut(delta);
+    for (int i = 0; i < readings.length; i++) {
+      QuantityValue expected = QuantityValue.ofScaled(readings[i], H1Units.DEG_F.u).plus(delta);
+      Assertions.assertEquals(expected.value(), degF.value(i), 1e-9);
+      Assertions.assertEquals(expected.unscaled(), degF.get(i).unscaled(), 1e-9);
+    }
+
+    degF.inUnitMut(H1Units.K.u);
+    Assertions.assertSame(H1Units.K.u, degF.unit());
+    Assertions.assertEquals(
+        QuantityValue.ofScaled(-40, H1Units.DEG_F.u).plus(delta).inUnit(H1Units.K.u).value(),
+        degF.value(0),
+        1e-9);
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> degF.inUnitMut(L1Units.M.u));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> degF.minusMut(QuantityValue.ofScaled(1, T1Units.SEC.u)));
+  }
+
+  @Test
+  void arithmetic() {
+    QuantityBuffer km = QuantityBuffer.allocate(2, L1Units.KiloM.u);
+    km.value(0, 36);
+    km.value(1, 72);
+    QuantityArray hr = QuantityArray.ofScaled(new double[] {1, 2}, T1Units.HR.u);
+
+    km.dividedByMut(hr);
+    Assertions.assertTrue(km.unit().isConvertible(L1T_1Units.M_PER_SEC.u));
+    Assertions.assertEquals(36, km.value(0), 1e-9);
+    Assertions.assertEquals(10, km.unscaled(1), 1e-9);
+
+    km.timesMut(hr);
+    Assertions.assertTrue(km.unit().isConvertible(L1Units.M.u));
+    Assertions.assertEquals(72000, km.unscaled(1), 1e-9);
+
+    km.timesMut(2).dividedByMut(QuantityValue.ofScaled(4, T1Units.SEC.u));
+    Assertions.assertEquals(36000, km.unscaled(1), 1e-9);
+
+    km.minusMut(QuantityArray.copyOf(km));
+    Assertions.assertEquals(0, km.unscaled(0), 1e-9);
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> km.plusMut(QuantityArray.zeros(3, km.unit())));
+  }
+
+  @Test
+  void wrapLittleEndian() {
+    ByteBuffer bytes = ByteBuffer.allocate(3 * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    bytes.putDouble(1).putDouble(2).putDouble(3).flip();
+    QuantityBuffer m = QuantityBuffer.wrap(bytes, L1Units.M.u);
+
+    Assertions.assertEquals(3, m.size());
+    Assertions.assertEquals(2, m.value(1));
+    Assertions.assertArrayEquals(
+        new double[] {1, 2, 3}, QuantityArray.copyOf(m).unscaledValues(), 0);
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> QuantityBuffer.wrap(ByteBuffer.allocate(7), null));
+  }
+
+  @Test
+  void mapInChunks() throws IOException {
+    Path file = Files.createTempFile("qudt", ".f64");
+    try {
+      ByteBuffer bytes = ByteBuffer.allocate(10 * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < 10; i++) {
+        bytes.putDouble(i);
+      }
+      Files.write(file, bytes.array());
+
+      List<Integer> sizes = new ArrayList<>();
+      QuantityBuffer.forEachMapped(
+          file,
+          MapMode.READ_WRITE,
+          L1Units.KiloM.u,
+          4,
+          chunk -> {
+            sizes.add(chunk.size());
+            chunk.inUnitMut(L1Units.M.u);
+            chunk.force();
+          });
+      Assertions.assertEquals(List.of(4, 4, 2), sizes);
+
+      double[] sum = {0};
+      QuantityBuffer.forEachMapped(
+          file,
+          MapMode.READ_ONLY,
+          L1Units.M.u,
+          3,
+          chunk -> {
+            for (int i = 0; i < chunk.size(); i++) {
+              sum[0] += chunk.value(i);
+            }
+          });
+      Assertions.assertEquals(45000, sum[0], 1e-9);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class QuantityCollectorsTest {
+
+  private static List<QuantityValue> lengths() {
+    return IntStream.rangeClosed(1, 10_000)
+        .mapToObj(
+            i ->
+                i % 2 == 0
+                    ? QuantityValue.ofScaled(i, L1Units.M.u)
+                    : QuantityValue.ofScaled(i / 1000., L1Units.KiloM.u))
+        .toList();
+  }
+
+  @Test
+  void summingAndAveraging() {
+    List<QuantityValue> lengths = lengths();
+
+    QuantityValue sum = lengths.stream().collect(QuantityCollectors.summing(L1Units.KiloM.u));
+    Assertions.assertSame(L1Units.KiloM.u, sum.unit());
+    Assertions.assertEquals(50_005, sum.value(), 1e-6);
+
+    QuantityValue parallelSum =
+        lengths.parallelStream().collect(QuantityCollectors.summing(L1Units.KiloM.u));
+    Assertions.assertEquals(sum.value(), parallelSum.value(), 1e-6);
+
+    QuantityValue mean =
+        lengths.parallelStream().collect(QuantityCollectors.averaging(L1Units.M.u));
+    Assertions.assertEquals(5000.5, mean.value(), 1e-6);
+
+    Assertions.assertEquals(
+        0,
+        Stream.<QuantityValue>empty().collect(QuantityCollectors.averaging(L1Units.M.u)).value());
+    Assertions.assertEquals(
+        0,
+        Stream.<QuantityValue>empty()
+            .collect(QuantityCollectors.averaging(H1Units.DEG_C.u))
+            .value(),
+        1e-12);
+    Assertions.assertEquals(
+        0,
+        Stream.<QuantityValue>empty().collect(QuantityCollectors.summing(H1Units.DEG_C.u)).value(),
+        1e-12);
+  }
+
+  @Test
+  void summarizing() {
+    QuantitySummaryStatistics stats =
+        lengths().parallelStream().collect(QuantityCollectors.summarizing(L1Units.M.u));
+
+    Assertions.assertEquals(10_000, stats.count());
+    Assertions.assertEquals(1, stats.min().value(), 1e-9);
+    Assertions.assertEquals(10_000, stats.max().value(), 1e-9);
+    Assertions.assertEquals(5000.5, stats.average().value(), 1e-9);
+    Assertions.assertEquals(50_005_000, stats.sum().value(), 1e-6);
+
+    QuantitySummaryStatistics adopted =
+        Stream.of(
+                QuantityValue.ofScaled(2, L1Units.KiloM.u), QuantityValue.ofScaled(1, L1Units.M.u))
+            .collect(QuantityCollectors.summarizing());
+    Assertions.assertSame(L1Units.KiloM.u, adopted.unit());
+    Assertions.assertEquals(2.001, adopted.sum().value(), 1e-12);
+  }
+
+  @Test
+  void notConvertible() {
+    Stream<QuantityValue> mixed =
+        Stream.of(QuantityValue.ofScaled(1, L1Units.M.u), QuantityValue.ofScaled(1, T1Units.SEC.u));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> mixed.collect(QuantityCollectors.summing(L1Units.M.u)));
+
+    // Units already checked are remembered, but a new unit is still checked after many of them.
+    Stream<QuantityValue> alternating =
+        Stream.concat(lengths().stream(), Stream.of(QuantityValue.ofScaled(1, T1Units.SEC.u)));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> alternating.collect(QuantityCollectors.summing(L1Units.M.u)));
+  }
+
+  @Test
+  void groupingByDimension() {
+    Map<DimensionVector, QuantitySummaryStatistics> byDimension =
+        Stream.concat(
+                lengths().stream(),
+                Stream.of(
+                    QuantityValue.ofScaled(2, T1Units.HR.u),
+                    QuantityValue.ofScaled(30, T1Units.SEC.u)))
+            .parallel()
+            .collect(QuantityCollectors.groupingByDimension());
+
+    Assertions.assertEquals(2, byDimension.size());
+    Assertions.assertEquals(10_000, byDimension.get(L1Units.M.u.dv()).count());
+
+    QuantitySummaryStatistics time = byDimension.get(T1Units.SEC.u.dv());
+    Assertions.assertEquals(2, time.count());
+    Assertions.assertEquals(7230, time.sum().inUnit(T1Units.SEC.u).value(), 1e-9);
+
+    Map<DimensionVector, QuantityValue> sums =
+        lengths().stream()
+            .collect(
+                QuantityCollectors.groupingByDimension(QuantityCollectors.summing(L1Units.M.u)));
+    Assertions.assertEquals(50_005_000, sums.get(L1Units.M.u.dv()).value(), 1e-6);
+  }
+}
@@ -1,5 +1,16 @@
 package com.occamsystems.qudt;
 
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.M1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -41,4 +52,127 @@ class SmallFractionTest {
     Assertions.assertEquals(new SmallFraction(13, 7), SmallFraction.approximate(1.8571));
     Assertions.assertEquals(new SmallFraction(-2, 3), SmallFraction.approximate(-0.6667));
   }
+
+  @Test
+  void flyweights() {
+    Assertions.assertSame(SmallFraction.of(1, 2), SmallFraction.of(-2, -4));
+    Assertions.assertSame(SmallFraction.of(-16, 8), SmallFraction.of(-2));
+    Assertions.assertSame(SmallFraction.of(3, 2), SmallFraction.approximate(1.5));
+    Assertions.assertSame(
+        SmallFraction.ONE, SmallFraction.plus(SmallFraction.of(1, 2), SmallFraction.of(1, 2)));
+    Assertions.assertSame(
+        SmallFraction.of(-5, 6),
+        SmallFraction.minus(SmallFraction.of(-1, 2), SmallFraction.of(1, 3)));
+    Assertions.assertSame(
+        SmallFraction.of(3, 4),
+        SmallFraction.times(SmallFraction.of(3, 2), SmallFraction.of(1, 2)));
+    Assertions.assertEquals(SmallFraction.of(17, 9), new SmallFraction(34, 18));
+    Assertions.assertEquals(
+        new SmallFraction(34, 18).hashCode(), SmallFraction.of(17, 9).hashCode());
+  }
+
+  @Test
+  void immutable() {
+    SmallFraction sf = new SmallFraction(6, -4);
+    Assertions.assertEquals(-3, sf.numerator());
+    Assertions.assertEquals(2, sf.denominator());
+    Assertions.assertSame(sf, sf.reduce());
+    Assertions.assertEquals(SmallFraction.of(-3, 2), sf);
+  }
+
+  @Test
+  void decimalString() {
+    Assertions.assertEquals("0", SmallFraction.ZERO.toDecimalString());
+    Assertions.assertEquals("-1.5", SmallFraction.of(-3, 2).toDecimalString());
+    Assertions.assertEquals("0.333", SmallFraction.of(1, 3).toDecimalString());
+    Assertions.assertEquals("-0.667", SmallFraction.of(-2, 3).toDecimalString());
+    Assertions.assertEquals("0.125", SmallFraction.of(1, 8).toDecimalString());
+    Assertions.assertEquals("1.417", new SmallFraction(17, 12).toDecimalString());
+    Assertions.assertEquals("250", new SmallFraction(250).toDecimalString());
+  }
+
+  @Test
+  void decimalStringIgnoresLocale() {
+    Locale locale = Locale.getDefault();
+    try {
+      // German uses a comma as the decimal separator and a period to group thousands.
+      Locale.setDefault(Locale.GERMANY);
+      Assertions.assertEquals("1.5", SmallFraction.of(3, 2).toDecimalString());
+      Assertions.assertEquals("-0.667", new SmallFraction(-2, 3).toDecimalString());
+      Assertions.assertEquals("2500.5", new SmallFraction(5001, 2).toDecimalString());
+      Assertions.assertEquals("12345", new SmallFraction(12345).toDecimalString());
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+  @Test
+  void concurrentFormatting() throws InterruptedException {
+    List<SmallFraction> fractions = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int denom = 1; denom <= 12; denom++) {
+      for (int num = -40; num <= 40; num++) {
+        SmallFraction sf = SmallFraction.of(num, denom);
+        fractions.add(sf);
+        expected.add(sf.toDecimalString());
+      }
+    }
+
+    List<AggregateUnit> units = new ArrayList<>();
+    List<String> expectedSymbols = new ArrayList<>();
+    List<String> expectedNames = new ArrayList<>();
+    for (int i = 1; i < 8; i++) {
+      AggregateUnit unit =
+          new AggregateUnit(
+              new AggregateUnit(
+                  L1Units.M.u, SmallFraction.of(i, 2), M1Units.KiloGM.u, SmallFraction.of(-i, 3)),
+              SmallFraction.ONE,
+              T1Units.SEC.u,
+              SmallFraction.of(-i));
+      units.add(unit);
+      expectedSymbols.add(unit.symbol());
+      expectedNames.add(unit.dv().localName());
+    }
+
+    int threads = 32;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger mismatches = new AtomicInteger();
+
+    for (int t = 0; t < threads; t++) {
+      executor.execute(
+          () -> {
+            try {
+              start.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return;
+            }
+
+            for (int round = 0; round < 200; round++) {
+              for (int i = 0; i < fractions.size(); i++) {
+                SmallFraction sf = fractions.get(i);
+                String fresh =
+                    new SmallFraction(sf.numerator(), sf.denominator()).toDecimalString();
+                if (!expected.get(i).equals(fresh)
+                    || !expected.get(i).equals(sf.toDecimalString())) {
+                  mismatches.incrementAndGet();
+                }
+              }
+
+              for (int i = 0; i < units.size(); i++) {
+                if (!expectedSymbols.get(i).equals(units.get(i).symbol())
+                    || !expectedNames.get(i).equals(units.get(i).dv().localName())) {
+                  mismatches.incrementAndGet();
+                }
+              }
+            }
+          });
+    }
+
+    start.countDown();
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+    Assertions.assertEquals(0, mismatches.get());
+  }
 }
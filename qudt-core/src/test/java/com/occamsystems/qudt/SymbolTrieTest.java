@@ -0,0 +1,38 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.L2M1T_3Units;
+import com.occamsystems.qudt.predefined.units.M1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class SymbolTrieTest {
+
+  private static final LiteralUnit[] UNITS = {
+    L1Units.M.u, L1Units.KiloM.u, M1Units.KiloGM.u, L2M1T_3Units.KiloW.u, T1Units.HR.u
+  };
+
+  private static final SymbolTrie TRIE =
+      SymbolTrie.of(new String[] {"m", "km", "kg", "kW", "h"}, i -> UNITS[i]);
+
+  @Test
+  void get() {
+    Assertions.assertEquals(5, TRIE.size());
+    Assertions.assertSame(L1Units.KiloM.u, TRIE.get("km", 0, 2));
+    Assertions.assertSame(L1Units.M.u, TRIE.get("km", 1, 2));
+    Assertions.assertSame(M1Units.KiloGM.u, TRIE.get("1 kg/s", 2, 4));
+    Assertions.assertNull(TRIE.get("k", 0, 1));
+    Assertions.assertNull(TRIE.get("kms", 0, 3));
+    Assertions.assertNull(TRIE.get("", 0, 0));
+  }
+
+  @Test
+  void withUnits() {
+    SymbolTrie trie = TRIE.withUnits(i -> i == 0 ? L1Units.MilliM.u : UNITS[i]);
+    Assertions.assertSame(L1Units.MilliM.u, trie.get("m", 0, 1));
+    Assertions.assertSame(L1Units.KiloM.u, trie.get("km", 0, 2));
+    Assertions.assertSame(L1Units.M.u, TRIE.get("m", 0, 1));
+  }
+}
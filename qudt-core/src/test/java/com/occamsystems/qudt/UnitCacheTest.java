@@ -0,0 +1,96 @@
+package com.occamsystems.qudt;
+
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.T1Units;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class UnitCacheTest {
+
+  @Test
+  void lru() {
+    UnitCache cache = new UnitCache(2, UnitCache.Policy.LRU);
+    cache.put("m", L1Units.M.u);
+    cache.put("km", L1Units.KiloM.u);
+    Assertions.assertSame(L1Units.M.u, cache.get("m"));
+    cache.put("s", T1Units.SEC.u);
+
+    Assertions.assertNull(cache.get("km"));
+    Assertions.assertSame(L1Units.M.u, cache.get("m"));
+    Assertions.assertSame(T1Units.SEC.u, cache.get("s"));
+    Assertions.assertEquals(2, cache.size());
+    Assertions.assertEquals(3, cache.hits());
+    Assertions.assertEquals(1, cache.misses());
+    Assertions.assertEquals(1, cache.evictions());
+    Assertions.assertEquals(0.75, cache.hitRate());
+  }
+
+  @Test
+  void fifo() {
+    UnitCache cache = new UnitCache(2, UnitCache.Policy.FIFO);
+    cache.put("m", L1Units.M.u);
+    cache.put("km", L1Units.KiloM.u);
+    Assertions.assertSame(L1Units.M.u, cache.get("m"));
+    cache.put("s", T1Units.SEC.u);
+
+    Assertions.assertNull(cache.get("m"));
+    Assertions.assertSame(L1Units.KiloM.u, cache.get("km"));
+    Assertions.assertEquals(1, cache.evictions());
+
+    cache.clear();
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertNull(cache.get("km"));
+  }
+
+  @Test
+  void disabled() {
+    UnitCache cache = new UnitCache(0, UnitCache.Policy.LRU);
+    cache.put("m", L1Units.M.u);
+    Assertions.assertNull(cache.get("m"));
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals(1, cache.misses());
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> new UnitCache(-1, UnitCache.Policy.FIFO));
+  }
+
+  @Test
+  void concurrentAccess() throws Exception {
+    for (UnitCache.Policy policy : UnitCache.Policy.values()) {
+      UnitCache cache = new UnitCache(64, policy);
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int seed = t;
+        futures.add(
+            executor.submit(
+                () -> {
+                  Random r = new Random(seed);
+                  for (int i = 0; i < 20_000; i++) {
+                    String symbol = "u" + r.nextInt(256);
+                    Unit unit = cache.get(symbol);
+                    if (unit == null) {
+                      cache.put(symbol, L1Units.M.u);
+                    } else {
+                      Assertions.assertSame(L1Units.M.u, unit);
+                    }
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      executor.shutdown();
+
+      Assertions.assertTrue(cache.size() <= 64, cache.toString());
+      Assertions.assertEquals(8 * 20_000, cache.hits() + cache.misses());
+      Assertions.assertTrue(cache.evictions() > 0, cache.toString());
+    }
+  }
+}
@@ -1,12 +1,16 @@
 package com.occamsystems.qudt;
 
+import com.occamsystems.qudt.predefined.SymbolIndex;
+import com.occamsystems.qudt.predefined.Units;
 import com.occamsystems.qudt.predefined.units.A1Units;
+import com.occamsystems.qudt.predefined.units.D1Units;
 import com.occamsystems.qudt.predefined.units.H1Units;
 import com.occamsystems.qudt.predefined.units.L1M1T_2Units;
 import com.occamsystems.qudt.predefined.units.L1M1Units;
 import com.occamsystems.qudt.predefined.units.L1T_1Units;
 import com.occamsystems.qudt.predefined.units.L1T_2Units;
 import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.L2M1T_2Units;
 import com.occamsystems.qudt.predefined.units.L2T_2Units;
 import com.occamsystems.qudt.predefined.units.L3Units;
 import com.occamsystems.qudt.predefined.units.L5Units;
@@ -15,9 +19,26 @@ import com.occamsystems.qudt.predefined.units.M1H_1T_3Units;
 import com.occamsystems.qudt.predefined.units.M1Units;
 import com.occamsystems.qudt.predefined.units.T1Units;
 import com.occamsystems.qudt.predefined.units.T_1Units;
+import java.lang.reflect.Array;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -61,6 +82,115 @@ class UnitIndexTest {
     Assertions.assertEquals(H1Units.DEG_C.u, map.get("degC"));
   }
 
+  @Test
+  void predefinedUnitsByVector() {
+    String code = L1Units.M.u.dv().indexCode();
+    Assertions.assertTrue(Units.byDV.containsKey(code));
+    Assertions.assertTrue(Arrays.asList(Units.byDV.get(code)).contains(L1Units.M.u));
+    Assertions.assertSame(Units.byDV.get(code), Units.units(code));
+    Assertions.assertNull(Units.byDV.get("L99"));
+    Assertions.assertFalse(Units.byDV.containsKey("L99"));
+    Assertions.assertSame(Units.byDV.get("L99"), Units.byDV.getOrDefault("L99", null));
+
+    Assertions.assertEquals(Units.byDV.size(), Units.byDV.keySet().size());
+    Assertions.assertEquals(Units.byDV.size(), Units.byDV.entrySet().size());
+    for (Map.Entry<String, LiteralUnit[]> e : Units.byDV.entrySet()) {
+      Assertions.assertSame(Units.units(e.getKey()), e.getValue());
+      Assertions.assertTrue(e.getValue().length > 0, e.getKey());
+    }
+    Assertions.assertThrows(
+        UnsupportedOperationException.class, () -> Units.byDV.put(code, new LiteralUnit[0]));
+  }
+
+  @Test
+  void generatedUnitLookups() {
+    Assertions.assertSame(L1Units.units(), L1Units.units());
+    for (L1Units unit : L1Units.values()) {
+      Assertions.assertSame(unit, L1Units.byOrdinal(unit.ordinal()));
+      Assertions.assertSame(unit.u, L1Units.units()[unit.ordinal()]);
+
+      L1Units bySymbol = L1Units.bySymbol(unit.u.symbol());
+      Assertions.assertEquals(unit.u.symbol(), bySymbol.u.symbol());
+      Assertions.assertTrue(bySymbol.ordinal() <= unit.ordinal());
+    }
+
+    Assertions.assertSame(L1Units.M, L1Units.bySymbol("m"));
+    Assertions.assertSame(L3Units.L, L3Units.bySymbol("L"));
+    Assertions.assertNull(L1Units.bySymbol("not a symbol"));
+  }
+
+  @Test
+  void generatedSymbolIndex() {
+    UnitIndex unitIndex = new UnitIndex();
+    List<LiteralUnit> preferred = List.of(D1Units.UNITLESS.u, H1Units.K.u, L3Units.L.u);
+    Comparator<LiteralUnit> order =
+        Comparator.comparing((LiteralUnit u) -> !preferred.contains(u))
+            .thenComparing(
+                u -> -unitIndex.kindsByDimensionVector().getOrDefault(u.dv(), List.of()).size())
+            .thenComparing(LiteralUnit::uri);
+    Map<String, LiteralUnit> expected =
+        unitIndex.simpleUnits().stream()
+            .collect(
+                Collectors.groupingBy(
+                    u -> UnitIndex.toKeyboardChars(u.symbol()),
+                    Collectors.collectingAndThen(Collectors.minBy(order), Optional::get)));
+
+    Map<String, LiteralUnit> map = unitIndex.simpleSymbolMap();
+    Assertions.assertEquals(expected.keySet(), map.keySet());
+    expected.forEach((symbol, unit) -> Assertions.assertSame(unit, map.get(symbol), symbol));
+    Assertions.assertSame(map, new UnitIndex().simpleSymbolMap());
+
+    for (String symbol : SymbolIndex.contested()) {
+      LiteralUnit[] candidates = SymbolIndex.candidates(symbol);
+      Assertions.assertTrue(candidates.length > 1, symbol);
+      for (LiteralUnit candidate : candidates) {
+        LiteralUnit winner =
+            Arrays.stream(candidates)
+                .filter(u -> u.equals(candidate) || preferred.contains(u))
+                .findFirst()
+                .orElseThrow();
+        Assertions.assertSame(winner, new UnitIndex(candidate).simpleSymbolMap().get(symbol));
+      }
+    }
+  }
+
+  @Test
+  void firstParseLoadsFewUnitEnums() throws Exception {
+    Unit expected = new UnitIndex().parseQuantity("18.3 kN").unit();
+
+    // A fresh copy of the library classes, so that nothing loaded by other tests counts.
+    URL classes = UnitIndex.class.getProtectionDomain().getCodeSource().getLocation();
+    try (IsolatedLoader loader = new IsolatedLoader(classes)) {
+      Class<?> literalUnit = loader.loadClass(LiteralUnit.class.getName());
+      Class<?> index = loader.loadClass(UnitIndex.class.getName());
+      Object unitIndex =
+          index
+              .getConstructor(Array.newInstance(literalUnit, 0).getClass())
+              .newInstance(Array.newInstance(literalUnit, 0));
+      Object quantity = index.getMethod("parseQuantity", String.class).invoke(unitIndex, "18.3 kN");
+      Assertions.assertEquals(
+          expected.toString(), quantity.getClass().getMethod("unit").invoke(quantity).toString());
+
+      List<String> loaded =
+          Units.byDV.keySet().stream()
+              .filter(v -> loader.isLoaded(L1Units.class.getPackageName() + "." + v + "Units"))
+              .toList();
+      Assertions.assertTrue(loaded.contains(expected.dv().indexCode()), loaded.toString());
+      // The vectors of the default preferred units and of kN, with some slack.
+      Assertions.assertTrue(loaded.size() <= 6, loaded.toString());
+    }
+  }
+
+  private static final class IsolatedLoader extends URLClassLoader {
+    IsolatedLoader(URL classes) {
+      super(new URL[] {classes}, ClassLoader.getPlatformClassLoader());
+    }
+
+    boolean isLoaded(String name) {
+      return this.findLoadedClass(name) != null;
+    }
+  }
+
   @Test
   void predefinedSymbol() {
     UnitIndex unitIndex = new UnitIndex();
@@ -127,6 +257,218 @@ class UnitIndexTest {
     Assertions.assertEquals(L3Units.L.u, liters.unit());
   }
 
+  @Test
+  void parseQuantities() {
+    UnitIndex unitIndex = new UnitIndex();
+    List<CharSequence> cells = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      cells.add(i % 3 == 0 ? i + " km" : i % 3 == 1 ? i + " m" : "1,00" + i % 10 + "h");
+    }
+
+    Map<Unit, QuantityArray> columns = unitIndex.parseQuantities(cells);
+    Assertions.assertEquals(
+        List.of(L1Units.KiloM.u, L1Units.M.u, T1Units.HR.u), List.copyOf(columns.keySet()));
+
+    QuantityArray km = columns.get(L1Units.KiloM.u);
+    Assertions.assertEquals(3334, km.size());
+    for (int i = 0; i < km.size(); i++) {
+      Assertions.assertEquals(3 * i, km.value(i), 1e-9);
+    }
+    Assertions.assertEquals(3333, columns.get(L1Units.M.u).size());
+    Assertions.assertEquals(1002, columns.get(T1Units.HR.u).value(0), 1e-9);
+
+    Map<Unit, QuantityArray> streamed =
+        unitIndex.parseQuantities(Stream.of("3e5mL/mol/K", "18.3 kN", "2 mL/mol/K"));
+    Assertions.assertEquals(2, streamed.size());
+    Assertions.assertEquals(18300, streamed.get(L1M1T_2Units.KiloN.u).unscaled(0), 1e-9);
+    QuantityArray molar = streamed.values().iterator().next();
+    Assertions.assertEquals(2, molar.size());
+    Assertions.assertEquals(2, molar.value(1), 1e-12);
+
+    Assertions.assertThrows(
+        NumberFormatException.class,
+        () -> unitIndex.parseQuantities(List.of("1 m", "not a quantity")));
+  }
+
+  @Test
+  void symbolCache() {
+    UnitIndex unitIndex = new UnitIndex();
+    unitIndex.useSymbolCache(new UnitCache(16, UnitCache.Policy.LRU));
+
+    Unit first = unitIndex.exactMatch("mL/mol/K");
+    Assertions.assertTrue(first instanceof AggregateUnit);
+    Assertions.assertSame(first, unitIndex.exactMatch("mL/mol/K"));
+    Assertions.assertSame(first, unitIndex.parseQuantity("3e5mL/mol/K").unit());
+    Assertions.assertEquals(2, unitIndex.symbolCache().hits());
+
+    // Resolving strings to predefined units registers them, which must not flush the cache.
+    Assertions.assertSame(L1Units.KiloM.u, unitIndex.exactMatch("km"));
+    Assertions.assertSame(T1Units.HR.u, unitIndex.exactMatch("h"));
+    Assertions.assertEquals(3, unitIndex.symbolCache().size());
+
+    LiteralUnit registered = unitIndex.demandExactLiteral(first, "http://occamsystems.com/test#");
+    Assertions.assertEquals(0, unitIndex.symbolCache().size());
+    Assertions.assertEquals(registered, unitIndex.exactMatch("mL/mol/K"));
+
+    unitIndex.useSymbolCache(new UnitCache(0, UnitCache.Policy.LRU));
+    Assertions.assertEquals(registered, unitIndex.exactMatch("mL/mol/K"));
+    Assertions.assertEquals(0, unitIndex.symbolCache().hits());
+  }
+
+  @Test
+  void runtimeUnitRetention() {
+    UnitIndex unitIndex = new UnitIndex();
+    unitIndex.exactMatch("km");
+    unitIndex.exactMatch("h");
+    Assertions.assertEquals(
+        List.of(L1Units.KiloM.u, T1Units.HR.u), unitIndex.runtimeUnitsSnapshot());
+
+    List<LiteralUnit> created = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      created.add(
+          unitIndex.demandExactLiteral(
+              new AggregateUnit(L1Units.KiloM.u, 3 * i, T1Units.HR.u, -i),
+              "http://occamsystems.com/test#"));
+    }
+    Assertions.assertEquals(5, unitIndex.runtimeUnitCount());
+
+    Assertions.assertEquals(2, unitIndex.compactRuntimeUnits());
+    Assertions.assertEquals(created, unitIndex.runtimeUnitsSnapshot());
+    Assertions.assertSame(L1Units.KiloM.u, unitIndex.exactMatch("km"));
+    Assertions.assertEquals(4, unitIndex.runtimeUnitCount());
+
+    unitIndex.retainRuntimeUnits(2);
+    Assertions.assertEquals(2, unitIndex.runtimeUnitCount());
+    Assertions.assertEquals(2, unitIndex.runtimeUnitEvictions());
+    Assertions.assertEquals(
+        List.of(created.get(2), L1Units.KiloM.u), unitIndex.runtimeUnitsSnapshot());
+    Assertions.assertTrue(unitIndex.registeredSymbolCount() <= 2);
+    Assertions.assertTrue(created.get(0).equivalent(unitIndex.exactMatch(created.get(0).symbol())));
+  }
+
+  @Test
+  void evictionClearsSymbolCache() {
+    UnitIndex unitIndex = new UnitIndex();
+    unitIndex.retainRuntimeUnits(1);
+    LiteralUnit created =
+        unitIndex.demandExactLiteral(
+            new AggregateUnit(L1Units.KiloM.u, 3, T1Units.HR.u, -1),
+            "http://occamsystems.com/test#");
+    Assertions.assertSame(created, unitIndex.exactMatch(created.symbol()));
+    Assertions.assertSame(created, unitIndex.exactMatch(created.symbol()));
+
+    // Registering a predefined unit pushes out the runtime unit, which must not stay cached.
+    Assertions.assertSame(L1Units.KiloM.u, unitIndex.exactMatch("km"));
+    Assertions.assertEquals(1, unitIndex.runtimeUnitEvictions());
+    Assertions.assertEquals(List.of(L1Units.KiloM.u), unitIndex.runtimeUnitsSnapshot());
+    Assertions.assertNotSame(created, unitIndex.exactMatch(created.symbol()));
+  }
+
+  @Test
+  void registerEqualUnitsWithDifferentUris() {
+    LiteralUnit first =
+        new LiteralUnit(
+            "Furlong", "http://occamsystems.com/test#A", "fur", L1Units.M.u.dv(), 0, 201);
+    LiteralUnit second =
+        new LiteralUnit(
+            "Furlong", "http://occamsystems.com/test#B", "fur", L1Units.M.u.dv(), 0, 201);
+    Assertions.assertEquals(first, second);
+
+    UnitIndex unitIndex = new UnitIndex();
+    unitIndex.registerUnit(first);
+    unitIndex.registerUnit(second);
+    unitIndex.registerUnit(first);
+    Assertions.assertEquals(2, unitIndex.runtimeUnitCount());
+    Assertions.assertSame(first, unitIndex.unitByUri(first.uri()).orElseThrow());
+    Assertions.assertSame(second, unitIndex.unitByUri(second.uri()).orElseThrow());
+
+    unitIndex.retainRuntimeUnits(1);
+    Assertions.assertEquals(1, unitIndex.runtimeUnitsSnapshot().size());
+    Assertions.assertSame(second, unitIndex.runtimeUnitsSnapshot().get(0));
+    Assertions.assertTrue(unitIndex.unitByUri(first.uri()).isEmpty());
+    Assertions.assertSame(second, unitIndex.unitByUri(second.uri()).orElseThrow());
+    Assertions.assertSame(second, unitIndex.exactMatch("fur"));
+  }
+
+  @Test
+  void registerUnitConcurrently() {
+    List<LiteralUnit> units = new ArrayList<>();
+    for (int i = 0; i < 4000; i++) {
+      units.add(
+          new LiteralUnit(
+              "Test " + i,
+              "http://occamsystems.com/test#U" + i,
+              "u" + i % 1000,
+              (i % 2 == 0 ? L1Units.M.u : T1Units.SEC.u).dv(),
+              0,
+              1 + i));
+    }
+
+    Map<String, Unit> resolved = null;
+    for (long seed = 0; seed < 3; seed++) {
+      List<LiteralUnit> shuffled = new ArrayList<>(units);
+      Collections.shuffle(shuffled, new Random(seed));
+
+      UnitIndex unitIndex = new UnitIndex();
+      shuffled.parallelStream().forEach(unitIndex::registerUnit);
+
+      Assertions.assertEquals(units.size(), unitIndex.runtimeUnitCount());
+      Assertions.assertEquals(Set.copyOf(units), Set.copyOf(unitIndex.runtimeUnitsSnapshot()));
+      Assertions.assertEquals(
+          units.size(),
+          unitIndex
+              .units()
+              .filter(u -> u.uri().startsWith("http://occamsystems.com/test#"))
+              .count());
+
+      Map<String, Unit> bySymbol = new HashMap<>();
+      for (int i = 0; i < 1000; i++) {
+        bySymbol.put("u" + i, unitIndex.exactMatch("u" + i));
+      }
+      Assertions.assertSame(units.get(7), bySymbol.get("u7"));
+      if (resolved != null) {
+        Assertions.assertEquals(resolved, bySymbol);
+      }
+      resolved = bySymbol;
+    }
+  }
+
+  @Test
+  void adjacentSymbolsAreNotSplit() {
+    UnitIndex unitIndex = new UnitIndex();
+    Assertions.assertEquals(L2M1T_2Units.KiloW_HR.u, unitIndex.exactMatch("kW*h"));
+    Assertions.assertEquals(AggregateUnit.empty, unitIndex.parseAsAggregateUnit("kWh"));
+    Assertions.assertEquals(AggregateUnit.empty, unitIndex.parseAsAggregateUnit("mins"));
+    Assertions.assertEquals(AggregateUnit.empty, unitIndex.parseAsAggregateUnit("hrs"));
+    Assertions.assertEquals(AggregateUnit.empty, unitIndex.parseAsAggregateUnit("Nm"));
+    Assertions.assertTrue(
+        new AggregateUnit(L1Units.M.u, 1, T1Units.HR.u, -1)
+            .equivalent(unitIndex.parseAsAggregateUnit("m/h")));
+    Assertions.assertEquals(
+        new AggregateUnit(L1Units.M.u, 1), unitIndex.parseAsAggregateUnit("m/hh"));
+  }
+
+  @Test
+  void coldStartConcurrently() throws Exception {
+    for (int attempt = 0; attempt < 5; attempt++) {
+      UnitIndex unitIndex = new UnitIndex();
+      List<Callable<Unit>> tasks = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        tasks.add(() -> unitIndex.exactMatch("kg*m/s2"));
+      }
+
+      ExecutorService pool = Executors.newFixedThreadPool(8);
+      try {
+        for (Future<Unit> f : pool.invokeAll(tasks)) {
+          Assertions.assertTrue(L1M1T_2Units.N.u.equivalent(f.get()));
+        }
+      } finally {
+        pool.shutdown();
+      }
+      Assertions.assertSame(L1Units.MicroM.u, unitIndex.simpleSymbolMap().get("um"));
+    }
+  }
+
   @Test
   void simplifyUnit() {
     UnitIndex index = new UnitIndex();
@@ -0,0 +1,25 @@
+package com.occamsystems.qudt.simd;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Scalar loops used when the Vector API is unavailable. These never reference
+ * jdk.incubator.vector, so they load on any JVM.
+ */
+final class ScalarKernels {
+  private ScalarKernels() {}
+
+  static void affine(
+      double m, double b, double[] src, int srcPos, double[] dst, int dstPos, int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = src[srcPos + i] * m + b;
+    }
+  }
+
+  static void affine(
+      float m, float b, float[] src, int srcPos, float[] dst, int dstPos, int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = src[srcPos + i] * m + b;
+    }
+  }
+}
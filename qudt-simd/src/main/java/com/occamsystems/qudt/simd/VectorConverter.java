@@ -0,0 +1,101 @@
+package com.occamsystems.qudt.simd;
+
+import com.occamsystems.qudt.Converter;
+import com.occamsystems.qudt.Unit;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Converts whole arrays of values between units. Every conversion is a multiply and an add,
+ * which is applied several lanes at a time with the incubating JDK Vector API when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}. Otherwise, this falls back to a scalar
+ * loop that gives the same results.
+ *
+ * <p>Source and destination arrays may be the same array. Conversions are folded into one multiply
+ * and one add per value, so results may differ from converting values one at a time through {@link
+ * Unit#scale} and {@link Unit#unscale} in the last bit.
+ */
+public final class VectorConverter {
+  private static final boolean VECTORIZED =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+          && !Boolean.getBoolean("qudt.simd.disable");
+
+  private VectorConverter() {}
+
+  /**
+   * Whether conversions use the Vector API. Setting the system property qudt.simd.disable forces
+   * the scalar fallback.
+   */
+  public static boolean isVectorized() {
+    return VECTORIZED;
+  }
+
+  /** Converts scaled values in one unit to scaled values in another. */
+  public static void convert(Unit from, Unit to, double[] src, double[] dst) {
+    convert(Converter.of(from, to), src, dst);
+  }
+
+  /** Converts scaled values in one unit to scaled values in another. */
+  public static void convert(Unit from, Unit to, float[] src, float[] dst) {
+    convert(Converter.of(from, to), src, dst);
+  }
+
+  public static void convert(Converter converter, double[] src, double[] dst) {
+    checkLength(src.length, dst.length);
+    convert(converter, src, 0, dst, 0, src.length);
+  }
+
+  public static void convert(Converter converter, float[] src, float[] dst) {
+    checkLength(src.length, dst.length);
+    convert(converter, src, 0, dst, 0, src.length);
+  }
+
+  public static void convert(
+      Converter converter, double[] src, int srcPos, double[] dst, int dstPos, int length) {
+    affine(converter.multiplier(), converter.offset(), src, srcPos, dst, dstPos, length);
+  }
+
+  public static void convert(
+      Converter converter, float[] src, int srcPos, float[] dst, int dstPos, int length) {
+    affine(converter.multiplier(), converter.offset(), src, srcPos, dst, dstPos, length);
+  }
+
+  /** Converts scaled values in the given unit to unscaled values, as {@link Unit#unscale}. */
+  public static void unscale(Unit unit, double[] scaled, double[] unscaled) {
+    checkLength(scaled.length, unscaled.length);
+    double m = unit.conversionMultiplier();
+    affine(m, unit.conversionOffset() * m, scaled, 0, unscaled, 0, scaled.length);
+  }
+
+  /** Converts unscaled values to scaled values in the given unit, as {@link Unit#scale}. */
+  public static void scale(Unit unit, double[] unscaled, double[] scaled) {
+    checkLength(unscaled.length, scaled.length);
+    double m = 1 / unit.conversionMultiplier();
+    affine(m, -unit.conversionOffset(), unscaled, 0, scaled, 0, unscaled.length);
+  }
+
+  private static void affine(
+      double m, double b, double[] src, int srcPos, double[] dst, int dstPos, int length) {
+    if (VECTORIZED) {
+      VectorKernels.affine(m, b, src, srcPos, dst, dstPos, length);
+    } else {
+      ScalarKernels.affine(m, b, src, srcPos, dst, dstPos, length);
+    }
+  }
+
+  private static void affine(
+      double m, double b, float[] src, int srcPos, float[] dst, int dstPos, int length) {
+    if (VECTORIZED) {
+      VectorKernels.affine((float) m, (float) b, src, srcPos, dst, dstPos, length);
+    } else {
+      ScalarKernels.affine((float) m, (float) b, src, srcPos, dst, dstPos, length);
+    }
+  }
+
+  private static void checkLength(int srcLength, int dstLength) {
+    if (dstLength < srcLength) {
+      throw new IllegalArgumentException(
+          "Destination length " + dstLength + " is less than source length " + srcLength);
+    }
+  }
+}
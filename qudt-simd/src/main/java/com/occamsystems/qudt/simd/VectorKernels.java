@@ -0,0 +1,42 @@
+package com.occamsystems.qudt.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Vector API loops. This class must only be loaded when jdk.incubator.vector is in the boot
+ * layer. Each lane computes x * m + b with a separate multiply and add rather than a fused
+ * multiply-add, so results match {@link ScalarKernels} and {@link com.occamsystems.qudt.Converter}
+ * exactly.
+ */
+final class VectorKernels {
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+
+  private VectorKernels() {}
+
+  static void affine(
+      double m, double b, double[] src, int srcPos, double[] dst, int dstPos, int length) {
+    int i = 0;
+    int bound = DOUBLES.loopBound(length);
+    for (; i < bound; i += DOUBLES.length()) {
+      DoubleVector.fromArray(DOUBLES, src, srcPos + i).mul(m).add(b).intoArray(dst, dstPos + i);
+    }
+
+    ScalarKernels.affine(m, b, src, srcPos + i, dst, dstPos + i, length - i);
+  }
+
+  static void affine(
+      float m, float b, float[] src, int srcPos, float[] dst, int dstPos, int length) {
+    int i = 0;
+    int bound = FLOATS.loopBound(length);
+    for (; i < bound; i += FLOATS.length()) {
+      FloatVector.fromArray(FLOATS, src, srcPos + i).mul(m).add(b).intoArray(dst, dstPos + i);
+    }
+
+    ScalarKernels.affine(m, b, src, srcPos + i, dst, dstPos + i, length - i);
+  }
+}
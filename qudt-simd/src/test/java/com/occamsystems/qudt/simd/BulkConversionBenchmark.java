@@ -0,0 +1,98 @@
+package com.occamsystems.qudt.simd;
+
+import com.occamsystems.qudt.Converter;
+import com.occamsystems.qudt.QuantityValue;
+import com.occamsystems.qudt.Unit;
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L_1M1T_2Units;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Copyright (c) 2024-2026 Occam Systems, Inc.
+ *
+ * <p>Compares converting arrays of samples through one QuantityValue per sample, a {@link
+ * Converter} loop, and {@link VectorConverter}. Run with:
+ *
+ * <pre>
+ * mvn -pl qudt-simd -am test-compile
+ * mvn -pl qudt-simd exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.occamsystems.qudt.simd.BulkConversionBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BulkConversionBenchmark {
+
+  @Param({"100000", "10000000"})
+  int size;
+
+  @Param({"DEG_F-K", "PSI-PA"})
+  String units;
+
+  Unit from;
+  Unit to;
+  Converter converter;
+  double[] src;
+  double[] dst;
+
+  @Setup
+  public void setup() {
+    if (units.equals("DEG_F-K")) {
+      from = H1Units.DEG_F.u;
+      to = H1Units.K.u;
+    } else {
+      from = L_1M1T_2Units.PSI.u;
+      to = L_1M1T_2Units.PA.u;
+    }
+
+    converter = Converter.of(from, to);
+    src = new Random(11).doubles(size, -100, 1000).toArray();
+    dst = new double[size];
+  }
+
+  @Benchmark
+  public double[] perObject() {
+    for (int i = 0; i < src.length; i++) {
+      dst[i] = QuantityValue.ofScaled(src[i], from).inUnit(to).value();
+    }
+    return dst;
+  }
+
+  @Benchmark
+  public double[] converterLoop() {
+    converter.convert(src, dst);
+    return dst;
+  }
+
+  @Benchmark
+  public double[] vectorized() {
+    VectorConverter.convert(converter, src, dst);
+    return dst;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(BulkConversionBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
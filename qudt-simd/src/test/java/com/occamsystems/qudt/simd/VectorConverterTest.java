@@ -0,0 +1,79 @@
+package com.occamsystems.qudt.simd;
+
+import com.occamsystems.qudt.Converter;
+import com.occamsystems.qudt.predefined.units.H1Units;
+import com.occamsystems.qudt.predefined.units.L1Units;
+import com.occamsystems.qudt.predefined.units.L_1M1T_2Units;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Copyright (c) 2024-2026 Occam Systems, Inc. */
+class VectorConverterTest {
+
+  @Test
+  void matchesConverter() {
+    Converter c = Converter.of(H1Units.DEG_F.u, H1Units.K.u);
+    Random random = new Random(7);
+
+    // Odd lengths exercise the scalar tail after the vector loop.
+    for (int n : new int[] {0, 1, 3, 17, 1001}) {
+      double[] src = random.doubles(n, -100, 500).toArray();
+      double[] expected = new double[n];
+      c.convert(src, expected);
+
+      double[] dst = new double[n];
+      VectorConverter.convert(c, src, dst);
+      Assertions.assertArrayEquals(expected, dst);
+
+      double[] scalar = new double[n];
+      ScalarKernels.affine(c.multiplier(), c.offset(), src, 0, scalar, 0, n);
+      Assertions.assertArrayEquals(expected, scalar);
+
+      VectorConverter.convert(c, src, src);
+      Assertions.assertArrayEquals(expected, src);
+    }
+  }
+
+  @Test
+  void floats() {
+    float[] src = {0, 1, 2.5f, 14.7f, 100, -3};
+    float[] dst = new float[src.length];
+    VectorConverter.convert(L_1M1T_2Units.PSI.u, L_1M1T_2Units.PA.u, src, dst);
+
+    for (int i = 0; i < src.length; i++) {
+      double expected = L_1M1T_2Units.PA.u.scale(L_1M1T_2Units.PSI.u.unscale(src[i]));
+      Assertions.assertEquals(expected, dst[i], Math.max(1e-3, Math.abs(expected) * 1e-6));
+    }
+  }
+
+  @Test
+  void ranges() {
+    Converter c = Converter.of(L1Units.KiloM.u, L1Units.M.u);
+    double[] src = {1, 2, 3, 4, 5};
+    double[] dst = new double[7];
+    VectorConverter.convert(c, src, 1, dst, 2, 3);
+    Assertions.assertArrayEquals(new double[] {0, 0, 2000, 3000, 4000, 0, 0}, dst);
+
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> VectorConverter.convert(c, src, new double[4]));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> VectorConverter.convert(L1Units.M.u, H1Units.K.u, src, new double[5]));
+  }
+
+  @Test
+  void scaleAndUnscale() {
+    double[] scaled = {-40, 0, 32, 212};
+    double[] unscaled = new double[4];
+    VectorConverter.unscale(H1Units.DEG_F.u, scaled, unscaled);
+
+    double[] roundTrip = new double[4];
+    VectorConverter.scale(H1Units.DEG_F.u, unscaled, roundTrip);
+
+    for (int i = 0; i < scaled.length; i++) {
+      Assertions.assertEquals(H1Units.DEG_F.u.unscale(scaled[i]), unscaled[i], 1e-9);
+      Assertions.assertEquals(scaled[i], roundTrip[i], 1e-9);
+    }
+  }
+}